@@ -0,0 +1,270 @@
+package at.htlle.auk.shuffler.bench;
+
+import at.htlle.auk.shuffler.bench.UiDriver.PhaseMetrics;
+import at.htlle.auk.shuffler.csvreader.TopicFiller;
+import javafx.application.Platform;
+import javafx.scene.Scene;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.function.LongSupplier;
+
+/**
+ * Allocation budgets of the hot paths, so GC pauses do not creep back into the animations:
+ * - pool load ({@code TopicFiller.fillTopics}) per MB of input, parsed and from the parse cache
+ * - one font fit pass ({@code adjustLabelsFontSize}), cache miss and cache hit
+ * - a full round: each click handler alone, the next deck's preparation alone, and the frames of each phase
+ *   per pulse (so the budget does not depend on how many frames a slower or faster machine renders)
+ *
+ * Bytes come from {@link com.sun.management.ThreadMXBean}: for the UI the FX thread's own counter, for the pool
+ * load the total of all threads (parsing runs on virtual threads). The median over {@code bench.repeats} runs is
+ * compared against {@code bench/alloc-budget.properties}; the run fails (exception from main) if a budget is
+ * exceeded or the budget file is missing.
+ *
+ * Runs in {@code mvn -P ui-bench verify}, or alone with
+ * {@code mvn -P ui-bench compile exec:java -Dexec.mainClass=at.htlle.auk.shuffler.bench.AllocationBudget}.
+ * System properties:
+ * - bench.repeats   runs per measurement (default 5, plus one warm-up)
+ * - bench.tolerance allowed growth against the budget (default 0.10 = +10%)
+ * - bench.pulseTolerance allowed growth of the per-pulse values (default 0.50: they vary by about 30% between runs)
+ * - bench.record    true = write the measured values as the new budget instead of comparing
+ * - bench.budget    budget file (default bench/alloc-budget.properties)
+ */
+public class AllocationBudget {
+
+    private static final int[] DECK_SIZES = {8, 16, 24};
+    private static final String[] PHASES = {"shuffle", "reveal1", "reveal2", "finalize"};
+    // click handler of each phase
+    private static final String[] HANDLERS = {"onShuffle", "onReveal1", "onReveal2", "onFinalChoice"};
+    private static final double MB = 1024 * 1024;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    public static void main(String[] args) throws Exception {
+        int repeats = Integer.getInteger("bench.repeats", 5);
+        double tolerance = Double.parseDouble(System.getProperty("bench.tolerance", "0.10"));
+        double pulseTolerance = Double.parseDouble(System.getProperty("bench.pulseTolerance", "0.50"));
+        boolean record = Boolean.getBoolean("bench.record");
+        Path budgetFile = Paths.get(System.getProperty("bench.budget", "bench/alloc-budget.properties"));
+        if (!THREADS.isThreadAllocatedMemorySupported()) {
+            throw new UnsupportedOperationException("Thread allocation counters not supported by this JVM");
+        }
+        THREADS.setThreadAllocatedMemoryEnabled(true);
+
+        Properties results = new Properties();
+
+        // before the toolkit starts, so no FX thread allocates next to the pool load
+        measurePoolLoad(results, repeats);
+
+        UiDriver.useBenchPool(DECK_SIZES);
+        UiDriver.startToolkit();
+        for (int deck : DECK_SIZES) {
+            measureFontFit(results, deck, repeats);
+            measureRound(results, deck, repeats);
+        }
+        Platform.exit();
+
+        results.stringPropertyNames().stream().sorted()
+                .forEach(k -> System.out.printf("%-36s %,14d%n", k, Long.parseLong(results.getProperty(k))));
+
+        Files.createDirectories(Paths.get("target"));
+        store(results, Paths.get("target/alloc-budget.properties"));
+
+        if (record) {
+            Path parent = budgetFile.toAbsolutePath().getParent();
+            if (parent != null) Files.createDirectories(parent);
+            store(results, budgetFile);
+            System.out.println("Budget written to " + budgetFile);
+            return;
+        }
+        // thrown, not System.exit: under exec:java (verify phase) this main runs inside the Maven JVM, which reports
+        // the exception as a build failure; a plain java run ends with exit code 1
+        if (!Files.isRegularFile(budgetFile)) {
+            // a missing budget must not pass the check silently
+            throw new IllegalStateException("No budget at " + budgetFile + " - run with -Dbench.record=true to create one");
+        }
+
+        // per-pulse values include fixed costs of the phase spread over a varying number of frames
+        Properties perOperation = new Properties();
+        Properties perPulse = new Properties();
+        results.forEach((k, v) -> (k.toString().endsWith(".bytesPerPulse") ? perPulse : perOperation).put(k, v));
+        Properties budget = load(budgetFile);
+        List<String> overruns = new ArrayList<>(UiBenchmark.compare(perOperation, budget, tolerance));
+        overruns.addAll(UiBenchmark.compare(perPulse, budget, pulseTolerance));
+        overruns.forEach(r -> System.out.println("OVER BUDGET " + r));
+        System.out.printf("%d budget(s) checked, %d exceeded%n", results.size(), overruns.size());
+        if (!overruns.isEmpty()) {
+            throw new IllegalStateException(overruns.size() + " allocation budget(s) exceeded, see OVER BUDGET above");
+        }
+    }
+
+    /** fillTopics on a ~1 MB pool file, once with an empty parse cache and once with a filled one. */
+    private static void measurePoolLoad(Properties results, int repeats) throws IOException {
+        Path poolDir = Files.createTempDirectory("shuffler-alloc-pools");
+        Path file = poolDir.resolve("alloc.txt");
+        writePool(file, 1024 * 1024);
+        // the bundled pool (a few KB) is loaded as well and not counted as input
+        double mb = Files.size(file) / MB;
+
+        List<Long> parsed = new ArrayList<>();
+        List<Long> cached = new ArrayList<>();
+        for (int r = 0; r <= repeats; r++) {
+            Path cacheDir = Files.createTempDirectory(poolDir, "cache");
+            long cold = totalBytes(() -> TopicFiller.fillTopics(poolDir, cacheDir).size());
+            long warm = totalBytes(() -> TopicFiller.fillTopics(poolDir, cacheDir).size());
+            if (r == 0) continue; // warm-up (class loading, JIT)
+            parsed.add(Math.round(cold / mb));
+            cached.add(Math.round(warm / mb));
+        }
+        results.setProperty("poolLoad.parsed.bytesPerMB", Long.toString(median(parsed)));
+        results.setProperty("poolLoad.cached.bytesPerMB", Long.toString(median(cached)));
+    }
+
+    /** One adjustLabelsFontSize pass on a settled board, with the fit cache cleared (miss) and filled (hit). */
+    private static void measureFontFit(Properties results, int deck, int repeats) throws Exception {
+        Scene scene = UiDriver.openBoard(1280, 800, UiDriver.subjectFor(deck));
+        try {
+            Object controller = controller(scene);
+            Method fit = controller.getClass().getDeclaredMethod("adjustLabelsFontSize");
+            fit.setAccessible(true);
+            Map<?, ?> cache = fitCache();
+
+            List<Long> miss = new ArrayList<>();
+            List<Long> hit = new ArrayList<>();
+            for (int r = 0; r <= repeats; r++) {
+                long[] bytes = UiDriver.onFx(() -> {
+                    cache.clear();
+                    long before = UiDriver.allocatedBytes();
+                    fit.invoke(controller);
+                    long afterMiss = UiDriver.allocatedBytes();
+                    fit.invoke(controller);
+                    return new long[]{afterMiss - before, UiDriver.allocatedBytes() - afterMiss};
+                });
+                UiDriver.settle(scene); // let the posted font updates run
+                if (r == 0) continue;
+                miss.add(bytes[0]);
+                hit.add(bytes[1]);
+            }
+            results.setProperty("deck" + deck + ".fit.miss.bytes", Long.toString(median(miss)));
+            results.setProperty("deck" + deck + ".fit.hit.bytes", Long.toString(median(hit)));
+        } finally {
+            UiDriver.closeBoard(scene);
+        }
+    }
+
+    /**
+     * Full rounds through the UI, budgeted independently of how many frames a phase gets:
+     * - each click handler alone (shuffle, both reveals, the final choice) and the next deck's preparation alone
+     * - the frames of each phase as bytes per pulse (phase bytes without the click and the preparation)
+     */
+    private static void measureRound(Properties results, int deck, int repeats) throws Exception {
+        Scene scene = UiDriver.openBoard(1280, 800, UiDriver.subjectFor(deck));
+        try {
+            Object controller = controller(scene);
+            Method prepare = controller.getClass().getDeclaredMethod("prepareNextDeck", String.class);
+            prepare.setAccessible(true);
+
+            Map<String, List<Long>> runs = new LinkedHashMap<>();
+            for (int r = 0; r <= repeats; r++) {
+                Map<String, PhaseMetrics> round = UiDriver.playRound(scene, deck);
+                // prepared once more, alone: same deck, so the same work as at the end of the final choice
+                long nextDeck = UiDriver.onFx(() -> {
+                    long before = UiDriver.allocatedBytes();
+                    prepare.invoke(controller, UiDriver.subjectFor(deck));
+                    return UiDriver.allocatedBytes() - before;
+                });
+                newRound(scene);
+                if (r == 0) continue; // warm-up
+
+                runs.computeIfAbsent("nextDeck.bytes", k -> new ArrayList<>()).add(nextDeck);
+                for (int i = 0; i < PHASES.length; i++) {
+                    PhaseMetrics m = round.get(PHASES[i]);
+                    long frames = m.phaseBytes() - m.actionBytes() - (PHASES[i].equals("finalize") ? nextDeck : 0);
+                    runs.computeIfAbsent(HANDLERS[i] + ".bytes", k -> new ArrayList<>()).add(m.actionBytes());
+                    runs.computeIfAbsent(PHASES[i] + ".bytesPerPulse", k -> new ArrayList<>())
+                            .add(Math.max(0, frames) / Math.max(1, m.pulses()));
+                }
+            }
+            runs.forEach((key, values) ->
+                    results.setProperty("deck" + deck + ".round." + key, Long.toString(median(values))));
+        } finally {
+            UiDriver.closeBoard(scene);
+        }
+    }
+
+    private static void newRound(Scene scene) throws Exception {
+        UiDriver.newRound(scene, () -> true);
+        UiDriver.settle(scene);
+    }
+
+    /** Bytes allocated by all threads (incl. ended ones) while {@code task} runs. */
+    private static long totalBytes(LongSupplier task) {
+        long before = THREADS.getTotalThreadAllocatedBytes();
+        task.getAsLong();
+        return THREADS.getTotalThreadAllocatedBytes() - before;
+    }
+
+    /**
+     * The board's controller, taken from the shuffle button's handler (ShuffleView wires the buttons with
+     * lambdas on the controller). Works on the classpath, where the bench runs.
+     */
+    private static Object controller(Scene scene) throws Exception {
+        Object handler = UiDriver.onFx(() -> UiDriver.findButton(scene, "Karten mischen").getOnAction());
+        for (Field f : handler.getClass().getDeclaredFields()) {
+            f.setAccessible(true);
+            Object value = f.get(handler);
+            if (value != null && value.getClass().getSimpleName().equals("ShuffleController")) return value;
+        }
+        throw new IllegalStateException("Controller not found on the shuffle button");
+    }
+
+    private static Map<?, ?> fitCache() throws Exception {
+        Field f = Class.forName("at.htlle.auk.shuffler.controller.FontFitCache").getDeclaredField("CACHE");
+        f.setAccessible(true);
+        return (Map<?, ?>) f.get(null);
+    }
+
+    /** Pool file of about {@code size} bytes: subjects of 40 topics with realistic lengths incl. umlauts. */
+    private static void writePool(Path file, int size) throws IOException {
+        StringBuilder sb = new StringBuilder(size + 4096);
+        for (int s = 0; sb.length() < size; s++) {
+            sb.append("ALLOC").append(s).append('\n');
+            for (int t = 1; t <= 40; t++) {
+                sb.append(t).append(" Qualitätsmanagement und Größenabschätzung im Projekt ").append(s)
+                        .append(", Thema ").append(t).append('\n');
+            }
+            sb.append('\n');
+        }
+        Files.writeString(file, sb.toString(), StandardCharsets.UTF_8);
+    }
+
+    private static long median(List<Long> values) {
+        List<Long> sorted = new ArrayList<>(values);
+        Collections.sort(sorted);
+        return sorted.get(sorted.size() / 2);
+    }
+
+    private static Properties load(Path file) throws IOException {
+        Properties p = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            p.load(in);
+        }
+        return p;
+    }
+
+    private static void store(Properties p, Path file) throws IOException {
+        try (OutputStream out = Files.newOutputStream(file)) {
+            p.store(out, "TopicShuffler allocation budgets (median bytes allocated per operation or per pulse)");
+        }
+    }
+}
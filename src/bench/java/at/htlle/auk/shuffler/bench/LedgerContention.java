@@ -0,0 +1,176 @@
+package at.htlle.auk.shuffler.bench;
+
+import at.htlle.auk.shuffler.ledger.DrawLedger;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Several local processes race for the same topics through one {@link DrawLedger} directory (as several PCs
+ * would on a network drive) and the run checks that every topic was handed out exactly once.
+ *
+ * Each worker claims all topics in its own random order. A separate observer process never claims: it only polls
+ * and notes when it first sees each draw, compared with the time in the draw's ledger line (same machine, same
+ * clock), which gives the propagation delay between processes (median / 95th percentile / max).
+ *
+ * Run with {@code mvn -P ui-bench compile exec:java -Dexec.mainClass=at.htlle.auk.shuffler.bench.LedgerContention}.
+ * System properties:
+ * - ledger.processes  worker processes (default 4)
+ * - ledger.topics     topics to hand out (default 200)
+ */
+public class LedgerContention {
+
+    private static final String SUBJECT = "CONTENTION";
+    private static final long POLL_MS = 20;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals("worker")) {
+            worker(Path.of(args[1]), Integer.parseInt(args[2]), Long.parseLong(args[3]));
+            return;
+        }
+        if (args.length > 0 && args[0].equals("observer")) {
+            observer(Path.of(args[1]), Integer.parseInt(args[2]));
+            return;
+        }
+
+        int processes = Integer.getInteger("ledger.processes", 4);
+        int topics = Integer.getInteger("ledger.topics", 200);
+        Path dir = Files.createTempDirectory("ledger");
+
+        String java = ProcessHandle.current().info().command().orElse("java");
+        Process observer = new ProcessBuilder(java, "-cp", classPath(), LedgerContention.class.getName(),
+                "observer", dir.toString(), Integer.toString(topics))
+                .redirectErrorStream(true)
+                .start();
+        BufferedReader observerOut = new BufferedReader(
+                new InputStreamReader(observer.getInputStream(), StandardCharsets.UTF_8));
+        // the observer's ledger is open and polling before the first claim
+        String line;
+        while ((line = observerOut.readLine()) != null && !line.equals("ready")) {
+            System.out.println("  " + line);
+        }
+
+        List<Process> workers = new ArrayList<>();
+        for (int i = 0; i < processes; i++) {
+            workers.add(new ProcessBuilder(java, "-cp", classPath(), LedgerContention.class.getName(),
+                    "worker", dir.toString(), Integer.toString(topics), Long.toString(i))
+                    .redirectErrorStream(true)
+                    .start());
+        }
+
+        int won = 0;
+        for (Process p : workers) {
+            try (BufferedReader r = new BufferedReader(new InputStreamReader(p.getInputStream(), StandardCharsets.UTF_8))) {
+                while ((line = r.readLine()) != null) {
+                    System.out.println("  " + line);
+                    if (line.startsWith("won=")) won += Integer.parseInt(line.substring(4).trim());
+                }
+            }
+            p.waitFor();
+        }
+        boolean observed = false;
+        while ((line = observerOut.readLine()) != null) {
+            System.out.println("  " + line);
+            if (line.startsWith("observer: seen " + topics + " ")) observed = true;
+        }
+        observer.waitFor();
+
+        int lines;
+        int distinct;
+        try (DrawLedger ledger = new DrawLedger(dir, "contention", POLL_MS)) {
+            distinct = ledger.taken(SUBJECT).size();
+        }
+        lines = Files.readAllLines(dir.resolve("draws-contention.ledger"), StandardCharsets.UTF_8).size();
+
+        boolean ok = won == topics && lines == topics && distinct == topics && observed;
+        System.out.printf("%d processes, %d topics: claims won %d, ledger lines %d, distinct %d, observer saw all %s -> %s%n",
+                processes, topics, won, lines, distinct, observed, ok ? "OK" : "FAIL");
+        System.exit(ok ? 0 : 1);
+    }
+
+    private static void worker(Path dir, int topics, long seed) throws Exception {
+        List<String> order = new ArrayList<>();
+        for (int i = 0; i < topics; i++) {
+            order.add("topic-" + i);
+        }
+        Collections.shuffle(order, new Random(seed));
+
+        try (DrawLedger ledger = new DrawLedger(dir, "contention", POLL_MS)) {
+            int won = 0;
+            for (String topic : order) {
+                if (ledger.claim(SUBJECT, topic)) won++;
+            }
+            System.out.printf("won=%d%n", won);
+        }
+    }
+
+    /**
+     * Never claims: notes when each draw shows up through polling and prints the delay after its ledger line
+     * was written (the time in the line is taken just before the write and force).
+     */
+    private static void observer(Path dir, int topics) throws Exception {
+        Map<String, Instant> seen = new ConcurrentHashMap<>();
+        try (DrawLedger ledger = new DrawLedger(dir, "contention", POLL_MS)) {
+            ledger.addListener(() -> {
+                Instant now = Instant.now();
+                for (String topic : ledger.taken(SUBJECT)) {
+                    seen.putIfAbsent(topic, now);
+                }
+            });
+            System.out.println("ready");
+            System.out.flush();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+            while (seen.size() < topics && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+        }
+
+        List<Double> delays = new ArrayList<>();
+        for (String line : Files.readAllLines(dir.resolve("draws-contention.ledger"), StandardCharsets.UTF_8)) {
+            String[] fields = line.split("\t");
+            Instant seenAt = seen.get(fields[1]);
+            if (seenAt != null) delays.add(Duration.between(Instant.parse(fields[3]), seenAt).toNanos() / 1e6);
+        }
+        Collections.sort(delays);
+        if (delays.isEmpty()) {
+            System.out.printf("observer: seen 0 of %d draws%n", topics);
+            return;
+        }
+        System.out.printf(Locale.ROOT, "observer: seen %d of %d draws, delay median %.1f ms, p95 %.1f ms, max %.1f ms "
+                        + "(poll every %d ms)%n", seen.size(), topics, delays.get(delays.size() / 2),
+                delays.get((int) Math.ceil(delays.size() * 0.95) - 1), delays.get(delays.size() - 1), POLL_MS);
+    }
+
+    /** Class path of this run (exec:java runs in a URLClassLoader, a plain java launch uses java.class.path). */
+    private static String classPath() {
+        if (LedgerContention.class.getClassLoader() instanceof URLClassLoader loader) {
+            StringJoiner cp = new StringJoiner(File.pathSeparator);
+            for (URL url : loader.getURLs()) {
+                try {
+                    cp.add(Path.of(url.toURI()).toString());
+                } catch (Exception ignored) {
+                    // not a file URL
+                }
+            }
+            return cp.toString();
+        }
+        return System.getProperty("java.class.path");
+    }
+}
@@ -0,0 +1,106 @@
+package at.htlle.auk.shuffler.bench;
+
+import at.htlle.auk.shuffler.bench.UiDriver.PhaseMetrics;
+import javafx.application.Platform;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.stage.Window;
+
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Counts CSS restyles per phase of a round: before every pulse's CSS pass, the nodes marked for a style
+ * update (state change) or a full re-match (style class / inline style change) are counted.
+ *
+ * Phases: the four of a round (see UiDriver.playRound), a font re-fit after a window resize ("refit")
+ * and "Neustart" ("newRound"). Results go to {@code target/ui-restyle.properties}; run it on two commits
+ * to compare before/after.
+ *
+ * Run with {@code mvn -P ui-bench compile exec:java -Dexec.mainClass=at.htlle.auk.shuffler.bench.RestyleCount}.
+ */
+public class RestyleCount {
+
+    private static final int[] DECK_SIZES = {8, 16, 24};
+    // refit: debounce (180 ms) + scheduled fit + a few pulses
+    private static final long WAIT_MS = 600;
+
+    private static Field cssFlag;
+
+    public static void main(String[] args) throws Exception {
+        UiDriver.useBenchPool(DECK_SIZES);
+        UiDriver.startToolkit();
+        UiDriver.countRestyles = true;
+
+        Properties results = new Properties();
+        System.out.printf("%-10s %-10s %10s%n", "deck", "phase", "restyles");
+        for (int deck : DECK_SIZES) {
+            Scene scene = UiDriver.openBoard(1280, 800, UiDriver.subjectFor(deck));
+            Map<String, PhaseMetrics> phases = UiDriver.playRound(scene, deck);
+
+            Window window = scene.getWindow();
+            long[] t0 = {0};
+            phases.put("refit", UiDriver.runPhase(scene, () -> {
+                t0[0] = System.nanoTime();
+                window.setWidth(window.getWidth() * 0.9);
+            }, () -> elapsed(t0[0], WAIT_MS)));
+
+            // fixed wait: the new cards are styled in the pulses after the click
+            t0[0] = System.nanoTime();
+            phases.put("newRound", UiDriver.newRound(scene, () -> elapsed(t0[0], WAIT_MS)));
+
+            phases.forEach((phase, m) -> {
+                results.setProperty("deck" + deck + "." + phase + ".restyles", Long.toString(m.restyles()));
+                System.out.printf("%-10d %-10s %10d%n", deck, phase, m.restyles());
+            });
+            UiDriver.closeBoard(scene);
+        }
+        Platform.exit();
+
+        Path out = Paths.get("target", "ui-restyle.properties");
+        Files.createDirectories(out.getParent());
+        try (OutputStream os = Files.newOutputStream(out)) {
+            results.store(os, "restyled nodes per phase");
+        }
+        System.out.println("written " + out);
+    }
+
+    private static boolean elapsed(long startNanos, long ms) {
+        return System.nanoTime() - startNanos > ms * 1_000_000;
+    }
+
+    /**
+     * Nodes below {@code root} that the next CSS pass restyles (Node.cssFlag UPDATE or REAPPLY).
+     * Reads JavaFX internals; works on the classpath (bench runs unnamed), -1 if not accessible.
+     */
+    static long markedNodes(Parent root) {
+        try {
+            if (cssFlag == null) {
+                Field f = Node.class.getDeclaredField("cssFlag");
+                f.setAccessible(true);
+                cssFlag = f;
+            }
+            return count(root);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return -1;
+        }
+    }
+
+    private static long count(Node node) throws IllegalAccessException {
+        Object flag = cssFlag.get(node);
+        String name = flag == null ? "" : flag.toString();
+        long n = name.equals("UPDATE") || name.equals("REAPPLY") ? 1 : 0;
+        if (node instanceof Parent p) {
+            for (Node child : p.getChildrenUnmodifiable()) {
+                n += count(child);
+            }
+        }
+        return n;
+    }
+}
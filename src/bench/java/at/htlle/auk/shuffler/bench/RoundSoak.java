@@ -0,0 +1,149 @@
+package at.htlle.auk.shuffler.bench;
+
+import javafx.beans.Observable;
+import javafx.scene.Scene;
+import javafx.scene.layout.GridPane;
+
+import java.lang.reflect.Field;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Long-run soak for the round lifecycle: plays many rounds on one board headless and checks that
+ * heap usage and the number of listeners on the grid's properties stay flat.
+ *
+ * Every round is played completely (shuffle, two reveals, final choice, so every transition and click handler
+ * of a round is created), then the next deck comes in through "Neustart" (the deck prepared during the final
+ * choice), every 10th round through a subject switch. Animations run {@code shuffler.animation.rate} times
+ * faster (default 10 here), so 10,000 rounds take about two hours headless.
+ * After a warm-up, heap (after GC) and listener counts are sampled and compared with the end of the run.
+ *
+ * Run with {@code mvn -P ui-bench compile exec:java -Dexec.mainClass=at.htlle.auk.shuffler.bench.RoundSoak}.
+ * System properties:
+ * - soak.rounds              rounds to play (default 10000)
+ * - soak.maxHeapGrowthMb     allowed heap growth after warm-up (default 8)
+ * - shuffler.animation.rate  animation speed-up (default 10)
+ */
+public class RoundSoak {
+
+    private static final int DECK = 8;
+    private static final int WARMUP_ROUNDS = 200;
+
+    public static void main(String[] args) throws Exception {
+        int rounds = Integer.getInteger("soak.rounds", 10_000);
+        if (rounds <= WARMUP_ROUNDS) {
+            System.err.printf("soak.rounds must be more than the %d warm-up rounds%n", WARMUP_ROUNDS);
+            System.exit(2);
+        }
+        long maxGrowthMb = Long.getLong("soak.maxHeapGrowthMb", 8);
+        // read by the controller when the first board is built
+        System.setProperty("shuffler.animation.rate", System.getProperty("shuffler.animation.rate", "10"));
+
+        UiDriver.useBenchPool(new int[]{DECK, DECK * 2});
+        UiDriver.startToolkit();
+
+        Scene scene = UiDriver.openBoard(1280, 800, UiDriver.subjectFor(DECK));
+        GridPane grid = UiDriver.onFx(() -> (GridPane) scene.getRoot().lookup("#grid"));
+
+        int[] deck = {DECK};
+        long baselineHeap = 0;
+        Map<String, Integer> baselineListeners = null;
+
+        for (int round = 1; round <= rounds; round++) {
+            int r = round;
+            UiDriver.playRound(scene, deck[0]);
+            if (r % 10 == 0) {
+                UiDriver.onFx(() -> {
+                    deck[0] = deck[0] == DECK ? DECK * 2 : DECK;
+                    UiDriver.selectSubject(scene, UiDriver.subjectFor(deck[0]));
+                    return null;
+                });
+            } else {
+                // the button is locked for a while after a final choice; the soak does not wait
+                UiDriver.newRound(scene, () -> true);
+            }
+            if (round % 100 == 0) UiDriver.settle(scene);
+
+            if (round == WARMUP_ROUNDS) {
+                baselineHeap = usedHeapAfterGc();
+                baselineListeners = UiDriver.onFx(() -> listenerCounts(grid));
+                System.out.printf("warm-up done: heap=%d KB listeners=%s%n", baselineHeap / 1024, baselineListeners);
+            } else if (round % 1000 == 0) {
+                System.out.printf("round %d: heap=%d KB listeners=%s%n",
+                        round, usedHeapAfterGc() / 1024, UiDriver.onFx(() -> listenerCounts(grid)));
+            }
+        }
+
+        UiDriver.settle(scene);
+        long endHeap = usedHeapAfterGc();
+        Map<String, Integer> endListeners = UiDriver.onFx(() -> listenerCounts(grid));
+        UiDriver.closeBoard(scene);
+        javafx.application.Platform.exit();
+
+        long growthKb = (endHeap - baselineHeap) / 1024;
+        boolean heapOk = growthKb <= maxGrowthMb * 1024;
+        // -1: internals not readable, so nothing was compared
+        boolean listenersOk = !endListeners.containsValue(-1) && endListeners.equals(baselineListeners);
+        System.out.printf("%d rounds: heap growth %d KB (limit %d MB), listeners %s -> %s%n",
+                rounds, growthKb, maxGrowthMb, baselineListeners, endListeners);
+        if (!heapOk) System.out.println("FAIL heap grew");
+        if (endListeners.containsValue(-1)) System.out.println("FAIL listener count not readable (run on the classpath)");
+        else if (!listenersOk) System.out.println("FAIL listener count changed");
+        System.exit(heapOk && listenersOk ? 0 : 1);
+    }
+
+    private static long usedHeapAfterGc() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /** Listener counts (incl. stale weak ones) on the grid properties the cards bind to. */
+    private static Map<String, Integer> listenerCounts(GridPane grid) {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        counts.put("width", listenerCount(grid.widthProperty()));
+        counts.put("height", listenerCount(grid.heightProperty()));
+        counts.put("hgap", listenerCount(grid.hgapProperty()));
+        counts.put("vgap", listenerCount(grid.vgapProperty()));
+        counts.put("scene", listenerCount(grid.sceneProperty()));
+        counts.put("layoutBounds", listenerCount(grid.layoutBoundsProperty()));
+        return counts;
+    }
+
+    /**
+     * Number of registered listeners, read from the property's internal ExpressionHelper.
+     * Works on the classpath (bench runs unnamed); returns -1 if the internals are not accessible,
+     * which fails the run.
+     */
+    static int listenerCount(Observable property) {
+        try {
+            Object helper = null;
+            for (Class<?> c = property.getClass(); c != null && helper == null; c = c.getSuperclass()) {
+                for (Field f : c.getDeclaredFields()) {
+                    if (f.getName().equals("helper")) {
+                        f.setAccessible(true);
+                        helper = f.get(property);
+                        break;
+                    }
+                }
+            }
+            if (helper == null) return 0;
+
+            int count = 0;
+            boolean generic = false;
+            for (Field f : helper.getClass().getDeclaredFields()) {
+                if (f.getName().equals("invalidationSize") || f.getName().equals("changeSize")) {
+                    f.setAccessible(true);
+                    count += f.getInt(helper);
+                    generic = true;
+                }
+            }
+            return generic ? count : 1; // SingleInvalidation / SingleChange
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return -1;
+        }
+    }
+}
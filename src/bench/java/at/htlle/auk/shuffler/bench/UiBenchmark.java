@@ -0,0 +1,161 @@
+package at.htlle.auk.shuffler.bench;
+
+import at.htlle.auk.shuffler.bench.UiDriver.PhaseMetrics;
+import javafx.application.Platform;
+import javafx.scene.Scene;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+
+/**
+ * Headless benchmark / regression run for the shuffle UI.
+ *
+ * First checks that ShuffleView still builds the same node tree as ShuffleView.fxml (exit code 1 if not).
+ * Then loads the real view (ShuffleView) + ShuffleController and plays full rounds through the UI
+ * (shuffle button, two card clicks, final click) for several deck and window sizes. Per phase it records
+ * pulses, layout passes and wall time, takes the median over {@code bench.repeats} runs and compares
+ * it against {@code bench/ui-baseline.properties}.
+ *
+ * Run with {@code mvn -P ui-bench compile exec:java} (Monocle headless, software pipeline, no display needed).
+ * System properties:
+ * - bench.repeats   runs per scenario (default 5, plus one warm-up)
+ * - bench.tolerance allowed slowdown against the baseline (default 0.25 = +25%)
+ * - bench.record    true = write the measured values as new baseline instead of comparing
+ * - bench.baseline  baseline file (default bench/ui-baseline.properties)
+ */
+public class UiBenchmark {
+
+    private static final int[] DECK_SIZES = {8, 16, 24};
+    private static final int[][] WINDOW_SIZES = {{1024, 768}, {1920, 1080}};
+    private static final String[] PHASES = {"shuffle", "reveal1", "reveal2", "finalize"};
+
+    public static void main(String[] args) throws Exception {
+        int repeats = Integer.getInteger("bench.repeats", 5);
+        double tolerance = Double.parseDouble(System.getProperty("bench.tolerance", "0.25"));
+        boolean record = Boolean.getBoolean("bench.record");
+        Path baselineFile = Paths.get(System.getProperty("bench.baseline", "bench/ui-baseline.properties"));
+
+        UiDriver.useBenchPool(DECK_SIZES);
+
+        UiDriver.startToolkit();
+
+        // the precompiled view is written by hand: fail before measuring if it drifted from the FXML
+        List<String> viewDifferences = UiDriver.viewDifferences();
+        if (!viewDifferences.isEmpty()) {
+            viewDifferences.forEach(d -> System.out.println("VIEW MISMATCH " + d));
+            Platform.exit();
+            System.exit(1);
+        }
+
+        Properties results = new Properties();
+        for (int deck : DECK_SIZES) {
+            for (int[] window : WINDOW_SIZES) {
+                String scenario = "deck" + deck + "." + window[0] + "x" + window[1];
+                playRound(deck, window[0], window[1]); // warm-up
+
+                Map<String, List<PhaseMetrics>> runs = new LinkedHashMap<>();
+                for (int r = 0; r < repeats; r++) {
+                    Map<String, PhaseMetrics> round = playRound(deck, window[0], window[1]);
+                    round.forEach((phase, m) -> runs.computeIfAbsent(phase, p -> new ArrayList<>()).add(m));
+                }
+                for (String phase : PHASES) {
+                    List<PhaseMetrics> list = runs.get(phase);
+                    String key = scenario + "." + phase;
+                    results.setProperty(key + ".pulses", Long.toString(median(list, PhaseMetrics::pulses)));
+                    results.setProperty(key + ".layouts", Long.toString(median(list, PhaseMetrics::layoutPasses)));
+                    results.setProperty(key + ".wallMs",
+                            String.format(Locale.ROOT, "%.1f", medianDouble(list, PhaseMetrics::wallMs)));
+                }
+                System.out.printf("%-20s %s%n", scenario, describe(results, scenario));
+            }
+        }
+        Platform.exit();
+
+        Files.createDirectories(Paths.get("target"));
+        store(results, Paths.get("target/ui-bench.properties"));
+
+        if (record) {
+            Path parent = baselineFile.toAbsolutePath().getParent();
+            if (parent != null) Files.createDirectories(parent);
+            store(results, baselineFile);
+            System.out.println("Baseline written to " + baselineFile);
+            return;
+        }
+        if (!Files.isRegularFile(baselineFile)) {
+            System.out.println("No baseline at " + baselineFile + " - run with -Dbench.record=true to create one");
+            return;
+        }
+
+        List<String> regressions = compare(results, load(baselineFile), tolerance);
+        regressions.forEach(r -> System.out.println("REGRESSION " + r));
+        System.out.printf("%d metric(s) compared, %d regression(s)%n", results.size(), regressions.size());
+        System.exit(regressions.isEmpty() ? 0 : 1);
+    }
+
+    private static Map<String, PhaseMetrics> playRound(int deck, double width, double height) throws Exception {
+        Scene scene = UiDriver.openBoard(width, height, UiDriver.subjectFor(deck));
+        try {
+            return UiDriver.playRound(scene, deck);
+        } finally {
+            UiDriver.closeBoard(scene);
+        }
+    }
+
+    /**
+     * Metrics above baseline * (1 + tolerance). Counts get one extra unit of slack so a single
+     * additional pulse on a tiny baseline is not reported.
+     */
+    static List<String> compare(Properties current, Properties baseline, double tolerance) {
+        List<String> regressions = new ArrayList<>();
+        for (String key : new TreeSet<>(current.stringPropertyNames())) {
+            String base = baseline.getProperty(key);
+            if (base == null) continue;
+            double now = Double.parseDouble(current.getProperty(key));
+            double limit = Double.parseDouble(base) * (1 + tolerance) + (key.endsWith(".wallMs") ? 0 : 1);
+            if (now > limit) {
+                regressions.add(String.format(Locale.ROOT, "%s: %s (baseline %s)", key, current.getProperty(key), base));
+            }
+        }
+        return regressions;
+    }
+
+    private static String describe(Properties results, String scenario) {
+        StringBuilder sb = new StringBuilder();
+        for (String phase : PHASES) {
+            String key = scenario + "." + phase;
+            sb.append(String.format(Locale.ROOT, "%s=%sms/%sp/%sl  ", phase,
+                    results.getProperty(key + ".wallMs"), results.getProperty(key + ".pulses"),
+                    results.getProperty(key + ".layouts")));
+        }
+        return sb.toString().trim();
+    }
+
+    private static long median(List<PhaseMetrics> list, java.util.function.ToLongFunction<PhaseMetrics> f) {
+        long[] values = list.stream().mapToLong(f).sorted().toArray();
+        return values[values.length / 2];
+    }
+
+    private static double medianDouble(List<PhaseMetrics> list, java.util.function.ToDoubleFunction<PhaseMetrics> f) {
+        double[] values = list.stream().mapToDouble(f).sorted().toArray();
+        return values[values.length / 2];
+    }
+
+    private static Properties load(Path file) throws IOException {
+        Properties p = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            p.load(in);
+        }
+        return p;
+    }
+
+    private static void store(Properties p, Path file) throws IOException {
+        try (OutputStream out = Files.newOutputStream(file)) {
+            p.store(out, "TopicShuffler UI benchmark (median per phase: pulses, layout passes, wall time)");
+        }
+    }
+}
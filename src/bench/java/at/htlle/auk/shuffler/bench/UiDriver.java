@@ -0,0 +1,374 @@
+package at.htlle.auk.shuffler.bench;
+
+import at.htlle.auk.shuffler.controller.ShuffleView;
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+import javafx.beans.value.ChangeListener;
+import javafx.css.PseudoClass;
+import javafx.event.Event;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.ButtonBase;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.Labeled;
+import javafx.scene.control.TextInputControl;
+import javafx.scene.input.MouseButton;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Pane;
+import javafx.scene.layout.Region;
+import javafx.scene.layout.VBox;
+import javafx.stage.Stage;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Drives the real shuffle UI headless for the bench tools (UiBenchmark, RoundSoak, RestyleCount):
+ * starts the toolkit on Monocle, opens boards, plays rounds through buttons and synthetic clicks
+ * and measures pulses / layout passes / wall time per phase.
+ */
+final class UiDriver {
+
+    static final long PHASE_TIMEOUT_SECONDS = 30;
+
+    // scale pulse of the chosen card (2 x 250 ms at the normal animation rate)
+    private static final long CHOSEN_PULSE_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+
+    private static final PseudoClass SELECTED = PseudoClass.getPseudoClass("selected");
+    private static final PseudoClass CHOSEN = PseudoClass.getPseudoClass("chosen");
+    private static final PseudoClass NOT_CHOSEN = PseudoClass.getPseudoClass("not-chosen");
+
+    /** Count restyled nodes per phase (walks the scene every pulse, so off for timing runs). */
+    static boolean countRestyles = false;
+
+    /**
+     * Measurements of one phase; {@code restyles} is -1 unless counted. Bytes are allocated on the FX thread:
+     * {@code actionBytes} by the action itself (e.g. the button handler), {@code phaseBytes} until the phase was done.
+     */
+    record PhaseMetrics(long pulses, long layoutPasses, double wallMs, long restyles, long actionBytes,
+                        long phaseBytes) {
+    }
+
+    private UiDriver() {
+    }
+
+    /** Starts the FX toolkit; headless defaults are only effective if set before this call. */
+    static void startToolkit() throws Exception {
+        System.setProperty("glass.platform", System.getProperty("glass.platform", "Monocle"));
+        System.setProperty("monocle.platform", System.getProperty("monocle.platform", "Headless"));
+        System.setProperty("prism.order", System.getProperty("prism.order", "sw"));
+        System.setProperty("headless.geometry", System.getProperty("headless.geometry", "1920x1080-32"));
+
+        CompletableFuture<Void> started = new CompletableFuture<>();
+        Platform.startup(() -> started.complete(null));
+        started.get(PHASE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        Platform.setImplicitExit(false);
+    }
+
+    /**
+     * Synthetic pool with one subject per deck size ("BENCH8", ...), loaded by TopicFiller
+     * through the pool directory. Must be called before the first board is opened.
+     */
+    static void useBenchPool(int[] deckSizes) throws IOException {
+        Path poolDir = Files.createTempDirectory("shuffler-bench-pools");
+        StringBuilder sb = new StringBuilder();
+        for (int deck : deckSizes) {
+            sb.append(subjectFor(deck)).append('\n');
+            for (int i = 1; i <= deck; i++) {
+                // realistic lengths incl. umlauts so font fitting does real work
+                sb.append(i).append(" Qualitätsmanagement und Größenabschätzung Thema ").append(i).append('\n');
+            }
+            sb.append('\n');
+        }
+        Files.writeString(poolDir.resolve("bench.txt"), sb.toString(), StandardCharsets.UTF_8);
+        System.setProperty("shuffler.pools.dir", poolDir.toString());
+        System.setProperty("shuffler.cache.dir", poolDir.resolve("cache").toString());
+        System.setProperty("shuffler.decks.dir", poolDir.resolve("decks").toString());
+    }
+
+    static String subjectFor(int deck) {
+        return "BENCH" + deck;
+    }
+
+    /**
+     * Fresh stage with the real view and stylesheet, showing the given subject; waits until it has settled.
+     */
+    static Scene openBoard(double width, double height, String subject) throws Exception {
+        Scene scene = onFx(() -> {
+            // same view source as the app: precompiled, or the FXML with -Dshuffler.view=fxml
+            Parent root = "fxml".equalsIgnoreCase(System.getProperty("shuffler.view"))
+                    ? new FXMLLoader(UiDriver.class.getResource("/at/htlle/auk/shuffler/ShuffleView.fxml")).load()
+                    : ShuffleView.build();
+            Scene s = new Scene(root, width, height);
+            s.getStylesheets().add(UiDriver.class.getResource("/at/htlle/auk/shuffler/styles.css").toExternalForm());
+            Stage stage = new Stage();
+            stage.setScene(s);
+            stage.show();
+            selectSubject(s, subject);
+            return s;
+        });
+        settle(scene);
+        return scene;
+    }
+
+    /**
+     * Differences between the node trees of ShuffleView and ShuffleView.fxml (node type, id, style classes,
+     * inline style, text, sizes, spacing, grid constraints, wired buttons), in depth-first order.
+     * The cards the controller puts into the grid are not part of the view and are skipped. Empty = in sync.
+     */
+    static List<String> viewDifferences() throws Exception {
+        return onFx(() -> {
+            List<String> precompiled = new ArrayList<>();
+            describeTree(ShuffleView.build(), "", precompiled);
+            List<String> fxml = new ArrayList<>();
+            describeTree(new FXMLLoader(UiDriver.class.getResource("/at/htlle/auk/shuffler/ShuffleView.fxml")).load(),
+                    "", fxml);
+            List<String> differences = new ArrayList<>();
+            for (int i = 0; i < Math.max(precompiled.size(), fxml.size()); i++) {
+                String p = i < precompiled.size() ? precompiled.get(i) : "(missing)";
+                String f = i < fxml.size() ? fxml.get(i) : "(missing)";
+                if (!p.equals(f)) differences.add("ShuffleView: " + p + " | fxml: " + f);
+            }
+            return differences;
+        });
+    }
+
+    private static void describeTree(Node node, String path, List<String> out) {
+        String here = path + "/" + node.getClass().getSimpleName() + (node.getId() != null ? "#" + node.getId() : "");
+        StringBuilder sb = new StringBuilder(here);
+        if (!node.getStyleClass().isEmpty()) sb.append(" class=").append(String.join(",", node.getStyleClass()));
+        if (node.getStyle() != null && !node.getStyle().isEmpty()) sb.append(" style=").append(node.getStyle());
+        if (node.isDisable()) sb.append(" disabled");
+        if (VBox.getVgrow(node) != null) sb.append(" vgrow=").append(VBox.getVgrow(node));
+        if (node instanceof Labeled l) sb.append(" text=").append(l.getText());
+        if (node instanceof ButtonBase b) sb.append(b.getOnAction() != null ? " wired" : " unwired");
+        if (node instanceof TextInputControl t) sb.append(" prompt=").append(t.getPromptText());
+        if (node instanceof Region r) {
+            sb.append(" pref=").append(r.getPrefWidth()).append('x').append(r.getPrefHeight())
+                    .append(" max=").append(r.getMaxWidth()).append('x').append(r.getMaxHeight())
+                    .append(" padding=").append(r.getPadding());
+        }
+        if (node instanceof VBox v) sb.append(" spacing=").append(v.getSpacing()).append(' ').append(v.getAlignment());
+        if (node instanceof HBox h) sb.append(" spacing=").append(h.getSpacing()).append(' ').append(h.getAlignment());
+        if (node instanceof GridPane g) {
+            sb.append(" gaps=").append(g.getHgap()).append('/').append(g.getVgap()).append(' ').append(g.getAlignment());
+            g.getColumnConstraints().forEach(c -> sb.append(" col=").append(c.getPercentWidth()));
+            g.getRowConstraints().forEach(r -> sb.append(" row=").append(r.getVgrow()));
+        }
+        out.add(sb.toString());
+        // only layout containers: a control's children are its skin, the grid's children are the cards
+        if (node instanceof Pane pane && !(node instanceof GridPane)) {
+            pane.getChildren().forEach(child -> describeTree(child, here, out));
+        }
+    }
+
+    static void closeBoard(Scene scene) throws Exception {
+        onFx(() -> {
+            ((Stage) scene.getWindow()).close();
+            return null;
+        });
+    }
+
+    static void selectSubject(Scene scene, String subject) {
+        @SuppressWarnings("unchecked")
+        ComboBox<String> combo = (ComboBox<String>) scene.getRoot().lookup("#subjectCombo");
+        combo.getSelectionModel().select(subject);
+    }
+
+    /** Lets layout and the scheduled font fit run for a few frames. */
+    static void settle(Scene scene) throws Exception {
+        int[] frames = {0};
+        runPhase(scene, () -> { }, () -> ++frames[0] >= 10);
+    }
+
+    /**
+     * One full round on the given board: shuffle, reveal two cards, final choice.
+     */
+    static Map<String, PhaseMetrics> playRound(Scene scene, int deck) throws Exception {
+        GridPane grid = onFx(() -> (GridPane) scene.getRoot().lookup("#grid"));
+        Map<String, PhaseMetrics> phases = new LinkedHashMap<>();
+        phases.put("shuffle", runPhase(scene,
+                () -> findButton(scene, "Karten mischen").fire(),
+                () -> cards(grid).stream().allMatch(c -> isBackShown(c)
+                        && c.getRotate() == 0 && c.getTranslateX() == 0 && c.getTranslateY() == 0)));
+
+        Node first = onFx(() -> cards(grid).get(0));
+        Node second = onFx(() -> cards(grid).get(cards(grid).size() - 1));
+
+        phases.put("reveal1", runPhase(scene, () -> click(first),
+                () -> inState(first, SELECTED)));
+
+        phases.put("reveal2", runPhase(scene, () -> click(second),
+                () -> cards(grid).stream().filter(c -> inState(c, NOT_CHOSEN)).count() == deck - 2));
+
+        // the final choice only becomes clickable after a short pause, so keep clicking until it is taken;
+        // done when the chosen card's pulse is over (by time: with sped-up animations it may fall between two
+        // frames, and with a shared ledger the card is marked only when the claim is confirmed)
+        long[] chosenAt = {0};
+        long[] clickBytes = {0};
+        Runnable finalClick = () -> {
+            long before = allocatedBytes();
+            click(first);
+            clickBytes[0] = allocatedBytes() - before;
+        };
+        PhaseMetrics finalize = runPhase(scene, finalClick, () -> {
+            if (!inState(first, CHOSEN)) {
+                finalClick.run();
+                return false;
+            }
+            if (chosenAt[0] == 0) chosenAt[0] = System.nanoTime();
+            boolean pulseOver = System.nanoTime() - chosenAt[0] > CHOSEN_PULSE_NANOS / animationRate();
+            return pulseOver && Math.abs(first.getScaleX() - 1.0) < 1e-6;
+        });
+        // action bytes of the click that was taken (without a shared ledger the last one), not of the early ones
+        phases.put("finalize", new PhaseMetrics(finalize.pulses(), finalize.layoutPasses(), finalize.wallMs(),
+                finalize.restyles(), clickBytes[0], finalize.phaseBytes()));
+
+        return phases;
+    }
+
+    /**
+     * "Neustart" with the 5 s lock skipped, measured like a phase until {@code done} holds. Fails if the deck
+     * prepared during the final choice (hidden, unmanaged cards in the grid) was not the one swapped in.
+     */
+    static PhaseMetrics newRound(Scene scene, BooleanSupplier done) throws Exception {
+        GridPane grid = onFx(() -> (GridPane) scene.getRoot().lookup("#grid"));
+        List<Node> prepared = new ArrayList<>();
+        List<Node> shown = new ArrayList<>();
+        PhaseMetrics metrics = runPhase(scene, () -> {
+            for (Node n : grid.getChildren()) {
+                if (n.getStyleClass().contains("card") && !n.isManaged()) prepared.add(n);
+            }
+            Button newRound = findButton(scene, "Neustart");
+            newRound.setDisable(false);
+            newRound.fire();
+            shown.addAll(cards(grid));
+        }, done);
+        if (prepared.isEmpty() || !prepared.equals(shown)) {
+            throw new IllegalStateException("Neustart did not swap in the prepared deck (" + prepared.size()
+                    + " cards prepared, " + shown.size() + " shown)");
+        }
+        return metrics;
+    }
+
+    /**
+     * Runs {@code action} on the FX thread and counts pulses and layout passes until {@code done} holds.
+     * {@code done} is checked once per frame.
+     */
+    static PhaseMetrics runPhase(Scene scene, Runnable action, BooleanSupplier done) throws Exception {
+        CompletableFuture<PhaseMetrics> result = new CompletableFuture<>();
+        Platform.runLater(() -> {
+            long[] pulses = {0};
+            long[] layouts = {0};
+            long[] restyles = {countRestyles ? 0 : -1};
+            Runnable pulseListener = () -> pulses[0]++;
+            // before the pulse's CSS pass: nodes marked for restyle at this point are restyled in it
+            Runnable cssListener = () -> {
+                long marked = RestyleCount.markedNodes(scene.getRoot());
+                restyles[0] = marked < 0 || restyles[0] < 0 ? -1 : restyles[0] + marked;
+            };
+            ChangeListener<Boolean> layoutListener = (obs, was, now) -> {
+                if (!now) layouts[0]++;
+            };
+            Parent root = scene.getRoot();
+            Node grid = root.lookup("#grid");
+            scene.addPostLayoutPulseListener(pulseListener);
+            if (countRestyles) scene.addPreLayoutPulseListener(cssListener);
+            root.needsLayoutProperty().addListener(layoutListener);
+            if (grid instanceof Parent p) p.needsLayoutProperty().addListener(layoutListener);
+
+            long start = System.nanoTime();
+            long bytesBefore = allocatedBytes();
+            action.run();
+            long actionBytes = allocatedBytes() - bytesBefore;
+            new AnimationTimer() {
+                @Override
+                public void handle(long now) {
+                    boolean timedOut = System.nanoTime() - start > TimeUnit.SECONDS.toNanos(PHASE_TIMEOUT_SECONDS);
+                    if (!timedOut && !done.getAsBoolean()) return;
+                    stop();
+                    scene.removePostLayoutPulseListener(pulseListener);
+                    scene.removePreLayoutPulseListener(cssListener);
+                    root.needsLayoutProperty().removeListener(layoutListener);
+                    if (grid instanceof Parent p) p.needsLayoutProperty().removeListener(layoutListener);
+                    if (timedOut) {
+                        result.completeExceptionally(new IllegalStateException("Phase did not finish in time"));
+                    } else {
+                        result.complete(new PhaseMetrics(pulses[0], layouts[0], (System.nanoTime() - start) / 1e6,
+                                restyles[0], actionBytes, allocatedBytes() - bytesBefore));
+                    }
+                }
+            }.start();
+        });
+        return result.get(PHASE_TIMEOUT_SECONDS + 5, TimeUnit.SECONDS);
+    }
+
+    /** Animation speed-up the controller runs with ({@code shuffler.animation.rate}, default 1). */
+    static double animationRate() {
+        return Math.max(1, Double.parseDouble(System.getProperty("shuffler.animation.rate", "1")));
+    }
+
+    /** Bytes allocated by the calling thread so far (HotSpot counts them per thread, incl. the current TLAB). */
+    static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getCurrentThreadAllocatedBytes();
+    }
+
+    static <T> T onFx(java.util.concurrent.Callable<T> task) throws Exception {
+        CompletableFuture<T> f = new CompletableFuture<>();
+        Platform.runLater(() -> {
+            try {
+                f.complete(task.call());
+            } catch (Throwable t) {
+                f.completeExceptionally(t);
+            }
+        });
+        return f.get(PHASE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Card state as pseudo-class, or as style class of the same name (how the cards carried it before
+     * the pseudo-classes), so the bench tools also run on older commits for before/after numbers.
+     */
+    static boolean inState(Node card, PseudoClass state) {
+        return card.getPseudoClassStates().contains(state) || card.getStyleClass().contains(state.getPseudoClassName());
+    }
+
+    /** Cards of the current round; the hidden, unmanaged cards of a prepared next deck are not counted. */
+    static List<Node> cards(GridPane grid) {
+        List<Node> result = new ArrayList<>();
+        for (Node n : grid.getChildren()) {
+            if (n.getStyleClass().contains("card") && n.isManaged()) result.add(n);
+        }
+        return result;
+    }
+
+    static boolean isBackShown(Node card) {
+        Node back = card.lookup(".card-back");
+        return back != null && back.isVisible();
+    }
+
+    static void click(Node node) {
+        Event.fireEvent(node, new MouseEvent(MouseEvent.MOUSE_CLICKED, 1, 1, 1, 1, MouseButton.PRIMARY, 1,
+                false, false, false, false, true, false, false, true, false, true, null));
+    }
+
+    static Button findButton(Scene scene, String text) {
+        for (Node n : scene.getRoot().lookupAll(".button")) {
+            if (n instanceof Button b && text.equals(b.getText())) return b;
+        }
+        throw new IllegalStateException("Button not found: " + text);
+    }
+
+}
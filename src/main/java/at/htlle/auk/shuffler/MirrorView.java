@@ -0,0 +1,280 @@
+package at.htlle.auk.shuffler;
+
+import javafx.application.Platform;
+import javafx.geometry.Bounds;
+import javafx.geometry.Rectangle2D;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.image.ImageView;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.layout.StackPane;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Text;
+import javafx.scene.transform.Transform;
+import javafx.stage.Screen;
+import javafx.stage.Stage;
+import javafx.stage.StageStyle;
+import javafx.stage.WindowEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Projector mirror: a borderless second window on another screen that shows the card grid of the main window.
+ *
+ * The grid is not duplicated; the mirror shows snapshots of it:
+ * - a snapshot is only taken after the main scene had a pulse (JavaFX pulses only when something changed or
+ *   an animation runs), so an idle window costs nothing
+ * - and only if the visible nodes below the source changed (transform, size, opacity, pseudo-classes, text,
+ *   image, or a canvas redraw, see {@link #REDRAWS}): pulses that only drive a pause or a debounce
+ *   (e.g. the 5 s new-round lock) cost a walk over the nodes instead of a snapshot
+ * - each snapshot is compared with the previous one and only the changed rectangle is written to the mirror image
+ * - the capture interval adapts to the measured snapshot cost (about 30 fps on fast machines, less on slow ones)
+ * Updating the mirror itself causes one more pulse and thus one more capture, which finds no change and stops.
+ *
+ * Enabled with {@code -Dshuffler.mirror=auto} (first screen other than the main one) or
+ * {@code -Dshuffler.mirror=<screen index>}.
+ */
+class MirrorView {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MirrorView.class);
+
+    private static final long MIN_INTERVAL_MS = 33;   // ~30 fps is plenty for a projector
+    private static final long MAX_INTERVAL_MS = 250;
+    // spend at most about a third of the time budget on capturing
+    private static final int COST_FACTOR = 3;
+
+    /**
+     * Node property a canvas renderer increments on every redraw: canvas content changes without any
+     * property of the scene graph changing.
+     */
+    static final String REDRAWS = "shuffler.redraws";
+
+    private final Node source;
+    private final Stage stage = new Stage(StageStyle.UNDECORATED);
+    private final ImageView view = new ImageView();
+    private final SnapshotParameters params = new SnapshotParameters();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "mirror-scheduler");
+        t.setDaemon(true);
+        return t;
+    });
+    private final Runnable pulseListener = this::onPulse;
+
+    private WritableImage snapshot;   // reused snapshot target of the source
+    private WritableImage mirror;     // image shown on the projector
+    private int[] previous = new int[0];
+    private int[] current = new int[0];
+
+    private boolean dirty = false;
+    private long shownState;          // fingerprint of the source at the last snapshot (see fingerprint)
+    private boolean scheduled = false;
+    private long intervalMs = MIN_INTERVAL_MS;
+    private long lastCapture = 0;
+
+    private MirrorView(Node source, Screen screen) {
+        this.source = source;
+        params.setFill(Color.TRANSPARENT);
+
+        view.setPreserveRatio(true);
+        view.setSmooth(true);
+        StackPane root = new StackPane(view);
+        root.setStyle("-fx-background-color: #f7f7f7;");
+        view.fitWidthProperty().bind(root.widthProperty());
+        view.fitHeightProperty().bind(root.heightProperty());
+
+        Rectangle2D bounds = screen.getBounds();
+        stage.setTitle("TopicShuffler (Projektor)");
+        stage.setScene(new Scene(root));
+        stage.setX(bounds.getMinX());
+        stage.setY(bounds.getMinY());
+        stage.setWidth(bounds.getWidth());
+        stage.setHeight(bounds.getHeight());
+    }
+
+    /**
+     * Opens the mirror for {@code source} if {@code shuffler.mirror} is set and a suitable screen exists.
+     * The mirror closes together with {@code owner}.
+     */
+    static void openIfConfigured(Stage owner, Node source, Screen mainScreen) {
+        String setting = System.getProperty("shuffler.mirror");
+        if (setting == null || setting.isBlank() || source == null) return;
+
+        Screen screen = pickScreen(setting.trim(), mainScreen);
+        if (screen == null) {
+            LOGGER.warn("Mirror requested ({}), but no matching second screen found", setting);
+            return;
+        }
+
+        MirrorView mirror = new MirrorView(source, screen);
+        owner.addEventHandler(WindowEvent.WINDOW_HIDDEN, e -> mirror.close());
+        mirror.open();
+    }
+
+    private static Screen pickScreen(String setting, Screen mainScreen) {
+        List<Screen> screens = Screen.getScreens();
+        if ("auto".equalsIgnoreCase(setting)) {
+            for (Screen s : screens) {
+                if (!s.equals(mainScreen)) return s;
+            }
+            return null;
+        }
+        try {
+            int index = Integer.parseInt(setting);
+            return index >= 0 && index < screens.size() ? screens.get(index) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private void open() {
+        Scene scene = source.getScene();
+        if (scene == null) return;
+        scene.addPostLayoutPulseListener(pulseListener);
+        stage.show();
+        dirty = true;
+        schedule();
+    }
+
+    private void close() {
+        Scene scene = source.getScene();
+        if (scene != null) scene.removePostLayoutPulseListener(pulseListener);
+        scheduler.shutdownNow();
+        stage.close();
+    }
+
+    private void onPulse() {
+        dirty = true;
+        schedule();
+    }
+
+    // capture at most once per interval; runLater does not request a pulse, so this never keeps the app busy
+    private void schedule() {
+        if (scheduled) return;
+        scheduled = true;
+        long delay = Math.max(0, intervalMs - (System.currentTimeMillis() - lastCapture));
+        scheduler.schedule(() -> Platform.runLater(this::capture), delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void capture() {
+        scheduled = false;
+        if (!dirty || !stage.isShowing()) return;
+        dirty = false;
+
+        long start = System.nanoTime();
+        int w = (int) Math.ceil(source.getLayoutBounds().getWidth());
+        int h = (int) Math.ceil(source.getLayoutBounds().getHeight());
+        if (w <= 0 || h <= 0) return;
+
+        boolean resized = snapshot == null || (int) snapshot.getWidth() != w || (int) snapshot.getHeight() != h;
+        long state = fingerprint(source, 17);
+        if (!resized && state == shownState) {
+            // pulse without a visible change of the source; the next check waits for the interval as well
+            lastCapture = System.currentTimeMillis();
+            return;
+        }
+        shownState = state;
+
+        if (resized) {
+            snapshot = new WritableImage(w, h);
+            mirror = new WritableImage(w, h);
+            view.setImage(mirror);
+            previous = new int[w * h];
+            current = new int[w * h];
+            Arrays.fill(previous, 1); // never equal to a real pixel on the first frame -> full upload
+        }
+
+        source.snapshot(params, snapshot);
+        snapshot.getPixelReader().getPixels(0, 0, w, h, PixelFormat.getIntArgbInstance(), current, 0, w);
+        uploadDirtyRegion(w, h);
+
+        int[] tmp = previous;
+        previous = current;
+        current = tmp;
+
+        lastCapture = System.currentTimeMillis();
+        long costMs = (System.nanoTime() - start) / 1_000_000;
+        intervalMs = Math.max(MIN_INTERVAL_MS, Math.min(MAX_INTERVAL_MS, costMs * COST_FACTOR));
+    }
+
+    /**
+     * Hash of what the snapshot of {@code node} depends on, over all visible nodes below it. Hidden nodes
+     * (e.g. a next deck waiting in the grid) are skipped.
+     */
+    private static long fingerprint(Node node, long hash) {
+        if (!node.isVisible()) return hash;
+        hash = 31 * hash + System.identityHashCode(node);
+        hash = 31 * hash + Double.hashCode(node.getOpacity());
+        Transform t = node.getLocalToParentTransform();
+        hash = 31 * hash + Double.hashCode(t.getMxx());
+        hash = 31 * hash + Double.hashCode(t.getMxy());
+        hash = 31 * hash + Double.hashCode(t.getMxz());
+        hash = 31 * hash + Double.hashCode(t.getTx());
+        hash = 31 * hash + Double.hashCode(t.getMyx());
+        hash = 31 * hash + Double.hashCode(t.getMyy());
+        hash = 31 * hash + Double.hashCode(t.getTy());
+        hash = 31 * hash + Double.hashCode(t.getMzx());
+        hash = 31 * hash + Double.hashCode(t.getMzy());
+        Bounds bounds = node.getLayoutBounds();
+        hash = 31 * hash + Double.hashCode(bounds.getWidth());
+        hash = 31 * hash + Double.hashCode(bounds.getHeight());
+        hash = 31 * hash + node.getPseudoClassStates().hashCode();
+        hash = 31 * hash + node.getStyleClass().hashCode();
+        hash = 31 * hash + Objects.hashCode(node.getStyle());
+        hash = 31 * hash + Objects.hashCode(node.getProperties().get(REDRAWS));
+        if (node instanceof Text text) {
+            hash = 31 * hash + Objects.hashCode(text.getText());
+            hash = 31 * hash + Objects.hashCode(text.getFont());
+            hash = 31 * hash + Objects.hashCode(text.getFill());
+        } else if (node instanceof ImageView image) {
+            hash = 31 * hash + System.identityHashCode(image.getImage());
+        }
+        if (node instanceof Parent parent) {
+            for (Node child : parent.getChildrenUnmodifiable()) {
+                hash = fingerprint(child, hash);
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Writes only the bounding box of the pixels that changed since the last capture into the mirror image.
+     */
+    private void uploadDirtyRegion(int w, int h) {
+        int minX = w;
+        int minY = h;
+        int maxX = -1;
+        int maxY = -1;
+        for (int y = 0; y < h; y++) {
+            int row = y * w;
+            if (Arrays.mismatch(current, row, row + w, previous, row, row + w) < 0) continue;
+            minY = Math.min(minY, y);
+            maxY = y;
+            for (int x = 0; x < w; x++) {
+                if (current[row + x] != previous[row + x]) {
+                    minX = Math.min(minX, x);
+                    break;
+                }
+            }
+            for (int x = w - 1; x >= 0; x--) {
+                if (current[row + x] != previous[row + x]) {
+                    maxX = Math.max(maxX, x);
+                    break;
+                }
+            }
+        }
+        if (maxY < 0) return; // nothing changed (e.g. a pulse for a pause transition)
+
+        mirror.getPixelWriter().setPixels(minX, minY, maxX - minX + 1, maxY - minY + 1,
+                PixelFormat.getIntArgbInstance(), current, minY * w + minX, w);
+    }
+}
@@ -1,23 +1,50 @@
 package at.htlle.auk.shuffler;
 
+import at.htlle.auk.shuffler.controller.FontWarmup;
+import at.htlle.auk.shuffler.controller.ShuffleView;
+import at.htlle.auk.shuffler.events.RoundJournal;
+import at.htlle.auk.shuffler.jfr.FlightRecording;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
+import javafx.geometry.Point2D;
 import javafx.geometry.Rectangle2D;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
+import javafx.scene.layout.ColumnConstraints;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.RowConstraints;
+import javafx.scene.robot.Robot;
 import javafx.stage.Screen;
 import javafx.stage.Stage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
-import java.awt.*;
 import java.io.IOException;
 import java.io.InputStream;
+import java.time.Duration;
+import java.time.Instant;
 
 public class Shuffler extends Application {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(Shuffler.class);
+
+    // view source: precompiled (ShuffleView, default) or the FXML (-Dshuffler.view=fxml)
+    private static final boolean FXML_VIEW = "fxml".equalsIgnoreCase(System.getProperty("shuffler.view"));
+
+    private boolean precompiledFailed = false;
+
+    @Override
+    public void init() {
+        // -Dshuffler.warmup=true: fonts and pool characters are measured in the background while the window is built
+        FontWarmup.start();
+    }
+
     @Override
     public void start(Stage stage) throws Exception {
-        // Load FXML and CSS
-        FXMLLoader loader = new FXMLLoader(getClass().getResource("/at/htlle/auk/shuffler/ShuffleView.fxml"));
-        Parent root = loader.load();
+        long startNanos = System.nanoTime();
+        // Build the view and load CSS (one board, or N independent boards in kiosk mode)
+        int boards = Math.max(1, Integer.getInteger("shuffler.boards", 1));
+        Parent root = boards == 1 ? loadBoard() : buildKiosk(boards);
         Scene scene = new Scene(root);
         // load stylesheet if present
         try {
@@ -29,22 +56,7 @@ public class Shuffler extends Application {
         stage.setScene(scene);
 
         // Determine which screen to use (prefer the screen that currently contains the mouse pointer)
-        Screen targetScreen = Screen.getPrimary();
-        try {
-            Point mouse = MouseInfo.getPointerInfo().getLocation();
-            double mx = mouse.getX();
-            double my = mouse.getY();
-            for (Screen s : Screen.getScreens()) {
-                Rectangle2D vb = s.getVisualBounds();
-                if (vb.contains(mx, my)) {
-                    targetScreen = s;
-                    break;
-                }
-            }
-        } catch (Throwable ignored) {
-            // AWT may be unavailable in some environments; fall back to primary screen
-            targetScreen = Screen.getPrimary();
-        }
+        Screen targetScreen = pointerScreen();
 
         // Compute a sane window size (percentage of the chosen screen's visual bounds)
         Rectangle2D visual = targetScreen.getVisualBounds();
@@ -82,16 +94,101 @@ public class Shuffler extends Application {
             }
         } catch (Exception ignored) { }
 
-        // Finally show the stage
+        // Finally show the stage; the first pulse after show() is the first frame (launch log)
+        scene.addPostLayoutPulseListener(new Runnable() {
+            @Override
+            public void run() {
+                scene.removePostLayoutPulseListener(this);
+                logFirstFrame(startNanos);
+            }
+        });
         stage.show();
 
         // Bring to front and request focus to ensure it's usable immediately
         stage.toFront();
         stage.requestFocus();
+
+        // Optional projector mirror of the card grid on another screen (-Dshuffler.mirror=auto|<index>)
+        MirrorView.openIfConfigured(stage, boards == 1 ? root.lookup("#grid") : root, targetScreen);
+    }
+
+    private Parent loadBoard() throws IOException {
+        if (!FXML_VIEW && !precompiledFailed) {
+            ShuffleView view = null;
+            try {
+                view = ShuffleView.tree();
+            } catch (RuntimeException e) {
+                // should not happen; the FXML describes the same view
+                precompiledFailed = true;
+                LOGGER.warn("Precompiled view failed, falling back to ShuffleView.fxml", e);
+            }
+            // attached outside the try: a failing controller must not be followed by a second one from the FXML
+            if (view != null) return view.attach();
+        }
+        FXMLLoader loader = new FXMLLoader(getClass().getResource("/at/htlle/auk/shuffler/ShuffleView.fxml"));
+        return loader.load();
+    }
+
+    /**
+     * Screen that contains the mouse pointer, read through the JavaFX robot (no AWT toolkit needed);
+     * primary screen if the pointer position is not available.
+     */
+    private static Screen pointerScreen() {
+        try {
+            Point2D mouse = new Robot().getMousePosition();
+            for (Screen s : Screen.getScreens()) {
+                if (s.getVisualBounds().contains(mouse)) {
+                    return s;
+                }
+            }
+        } catch (RuntimeException ignored) {
+            // e.g. no pointer on a headless platform; fall back to primary screen
+        }
+        return Screen.getPrimary();
+    }
+
+    private void logFirstFrame(long startNanos) {
+        long sinceStart = (System.nanoTime() - startNanos) / 1_000_000;
+        // JVM start as seen by the OS; empty if the platform does not report it
+        String sinceLaunch = ProcessHandle.current().info().startInstant()
+                .map(t -> Duration.between(t, Instant.now()).toMillis() + " ms")
+                .orElse("n/a");
+        LOGGER.info("First frame after {} ms in start() ({} since JVM launch, {} view)",
+                sinceStart, sinceLaunch, FXML_VIEW || precompiledFailed ? "fxml" : "precompiled");
+    }
+
+    /**
+     * Kiosk mode (-Dshuffler.boards=N): N boards side by side in one window, each with its own controller
+     * (subject, name, round state). Pool, card-back image and font-fit results are shared process wide,
+     * so additional boards mostly cost their own nodes.
+     */
+    private Parent buildKiosk(int boards) throws IOException {
+        int columns = (int) Math.ceil(Math.sqrt(boards));
+        int rows = (boards + columns - 1) / columns;
+
+        GridPane kiosk = new GridPane();
+        kiosk.setHgap(8);
+        kiosk.setVgap(8);
+        for (int c = 0; c < columns; c++) {
+            ColumnConstraints cc = new ColumnConstraints();
+            cc.setPercentWidth(100.0 / columns);
+            kiosk.getColumnConstraints().add(cc);
+        }
+        for (int r = 0; r < rows; r++) {
+            RowConstraints rc = new RowConstraints();
+            rc.setPercentHeight(100.0 / rows);
+            kiosk.getRowConstraints().add(rc);
+        }
+        for (int i = 0; i < boards; i++) {
+            kiosk.add(loadBoard(), i % columns, i / columns);
+        }
+        return kiosk;
     }
 
 
     public static void main(String[] args) {
+        FlightRecording.startIfConfigured();
+        RoundJournal.startIfConfigured();
         launch();
     }
 }
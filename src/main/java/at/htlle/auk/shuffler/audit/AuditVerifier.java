@@ -0,0 +1,162 @@
+package at.htlle.auk.shuffler.audit;
+
+import at.htlle.auk.shuffler.csvreader.TopicFiller;
+import at.htlle.auk.shuffler.model.Topic;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * Replays every seeded draw in the audit logs and flags records whose outcome does not match their seed.
+ *
+ * Usage: {@code AuditVerifier [log files or directories...]} (default: {@code logs}).
+ * Files are read and records verified in parallel. A record is replayed against the deck version it was drawn
+ * from, found by subject and deck hash among the current pools (loaded once through {@link TopicFiller}) and the
+ * {@link DeckArchive}, so later pool edits do not invalidate older records.
+ * Exit code 0 if every record checks out, 1 if at least one record was flagged.
+ */
+public class AuditVerifier {
+
+    /** Outcome of verifying a single record. */
+    public enum Status {
+        OK,
+        /** subject no longer exists in the pools */
+        UNKNOWN_SUBJECT,
+        /** subject exists, but the deck version of the record is neither in the pools nor in the archive */
+        POOL_CHANGED,
+        /** seed does not reproduce the logged permutation index */
+        PERMUTATION_MISMATCH,
+        /** replayed topics at the logged slots differ from the logged selection / final choice */
+        OUTCOME_MISMATCH,
+        /** line carries a seed but cannot be parsed (edited by hand?) */
+        MALFORMED
+    }
+
+    /** A flagged record with its location. */
+    public record Finding(Path file, int lineNumber, Status status, String line) {
+    }
+
+    /** Number of seeded records looked at, plus the flagged ones. */
+    public record Report(long checked, List<Finding> findings) {
+    }
+
+    // deck versions by DeckArchive.key(subject, deck hash): the archive plus the current pools
+    private final Map<String, List<Topic>> decks = new HashMap<>();
+    private final Set<String> subjects = new HashSet<>();
+
+    public AuditVerifier(Map<String, List<Topic>> pools) {
+        this(pools, Map.of());
+    }
+
+    public AuditVerifier(Map<String, List<Topic>> pools, Map<String, DeckArchive.Deck> archived) {
+        archived.forEach((key, deck) -> {
+            decks.put(key, deck.topics());
+            subjects.add(deck.subject());
+        });
+        pools.forEach((subject, topics) -> {
+            decks.put(DeckArchive.key(subject, DrawRecord.deckHash(topics)), topics);
+            subjects.add(subject);
+        });
+    }
+
+    public Status verify(DrawRecord record) {
+        List<Topic> topics = decks.get(DeckArchive.key(record.subject(), record.deckHash()));
+        if (topics == null) {
+            return subjects.contains(record.subject()) ? Status.POOL_CHANGED : Status.UNKNOWN_SUBJECT;
+        }
+
+        int n = topics.size();
+        if (record.firstSlot() >= n || record.secondSlot() >= n) return Status.OUTCOME_MISMATCH;
+        // the same card cannot be revealed twice
+        if (record.firstSlot() == record.secondSlot()) return Status.OUTCOME_MISMATCH;
+
+        int[] perm = SeededShuffle.permutation(record.seed(), n);
+        if (!SeededShuffle.index(perm).equals(record.permutationIndex())) return Status.PERMUTATION_MISMATCH;
+
+        String first = topics.get(perm[record.firstSlot()]).getName();
+        String second = topics.get(perm[record.secondSlot()]).getName();
+        if (!(first + ", " + second).equals(record.selected())) return Status.OUTCOME_MISMATCH;
+        if (!record.finalChoice().equals(first) && !record.finalChoice().equals(second)) return Status.OUTCOME_MISMATCH;
+
+        return Status.OK;
+    }
+
+    /**
+     * Verifies all seeded records in the given files. Flagged records are returned in file/line order.
+     */
+    public Report verifyFiles(List<Path> files) {
+        List<Finding> findings = Collections.synchronizedList(new ArrayList<>());
+        long checked = files.parallelStream()
+                .mapToLong(f -> {
+                    List<String> lines = readLines(f);
+                    return IntStream.range(0, lines.size()).parallel()
+                            .filter(i -> {
+                                String line = lines.get(i);
+                                DrawRecord record = DrawRecord.parse(line);
+                                if (record == null) {
+                                    // records from before seeding have no seed and are skipped
+                                    if (!line.contains(" | seed=")) return false;
+                                    findings.add(new Finding(f, i + 1, Status.MALFORMED, line));
+                                    return true;
+                                }
+                                Status status = verify(record);
+                                if (status != Status.OK) {
+                                    findings.add(new Finding(f, i + 1, status, line));
+                                }
+                                return true;
+                            })
+                            .count();
+                })
+                .sum();
+
+        List<Finding> sorted = new ArrayList<>(findings);
+        sorted.sort(Comparator.comparing((Finding x) -> x.file().toString()).thenComparingInt(Finding::lineNumber));
+        return new Report(checked, sorted);
+    }
+
+    // old logs may not be UTF-8 (platform default charset); decode leniently instead of failing
+    private static List<String> readLines(Path file) {
+        try {
+            return new String(Files.readAllBytes(file), StandardCharsets.UTF_8).lines().toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read log " + file, e);
+        }
+    }
+
+    private static List<Path> collectLogs(String[] args) throws IOException {
+        List<Path> files = new ArrayList<>();
+        for (String arg : args.length == 0 ? new String[]{"logs"} : args) {
+            Path p = Paths.get(arg);
+            if (Files.isDirectory(p)) {
+                try (DirectoryStream<Path> stream = Files.newDirectoryStream(p, "*.log")) {
+                    stream.forEach(files::add);
+                }
+            } else {
+                files.add(p);
+            }
+        }
+        return files;
+    }
+
+    public static void main(String[] args) throws IOException {
+        long start = System.nanoTime();
+        List<Path> files = collectLogs(args);
+        AuditVerifier verifier = new AuditVerifier(TopicFiller.fillTopics(), DeckArchive.configured().load());
+
+        Report report = verifier.verifyFiles(files);
+
+        for (Finding f : report.findings()) {
+            System.out.printf("%s:%d %s %s%n", f.file(), f.lineNumber(), f.status(), f.line());
+        }
+        System.out.printf("Verified %d seeded records in %d file(s) in %d ms, %d flagged%n",
+                report.checked(), files.size(), (System.nanoTime() - start) / 1_000_000, report.findings().size());
+        System.exit(report.findings().isEmpty() ? 0 : 1);
+    }
+}
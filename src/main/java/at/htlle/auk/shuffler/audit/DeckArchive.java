@@ -0,0 +1,156 @@
+package at.htlle.auk.shuffler.audit;
+
+import at.htlle.auk.shuffler.model.Topic;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Every deck version a draw was made from, so old audit records can still be replayed after a pool was edited.
+ *
+ * One file per subject and topic list ({@code <sha-256>.deck}: subject on the first line, then the topics in
+ * pool order), written the first time a draw from that version is logged. The verifier indexes the files by
+ * subject and {@link DrawRecord#deckHash}, recomputed from the content, so an edited archive file no longer
+ * matches its records. Keep the directory together with the logs.
+ *
+ * Directory: system property {@code shuffler.decks.dir}, default {@code decks}.
+ */
+public final class DeckArchive {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DeckArchive.class);
+
+    private static final String SUFFIX = ".deck";
+
+    private static volatile DeckArchive configured;
+
+    /** An archived deck version. */
+    public record Deck(String subject, List<Topic> topics) {
+    }
+
+    private final Path directory;
+    // file names already known to exist; several boards may archive at the same time
+    private final Set<String> stored = Collections.synchronizedSet(new HashSet<>());
+    // storeAsync: hashing and file I/O off the callers' (FX) thread
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "deck-archive");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public DeckArchive(Path directory) {
+        this.directory = directory;
+    }
+
+    /** The archive configured by {@code shuffler.decks.dir}, shared by all boards of the process. */
+    public static DeckArchive configured() {
+        DeckArchive result = configured;
+        if (result == null) {
+            synchronized (DeckArchive.class) {
+                result = configured;
+                if (result == null) {
+                    result = new DeckArchive(Paths.get(System.getProperty("shuffler.decks.dir", "decks")));
+                    configured = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Archives this deck version unless it is there already (one existence check per version and process).
+     * Failures are logged: the draw itself is in the log either way.
+     */
+    public void store(String subject, List<Topic> topics) {
+        String name = fileName(subject, topics);
+        if (stored.contains(name)) return;
+        Path file = directory.resolve(name);
+        try {
+            if (!Files.isRegularFile(file)) {
+                Files.createDirectories(directory);
+                // temp file first, so a concurrent reader never sees half a deck
+                Path tmp = Files.createTempFile(directory, "deck", ".tmp");
+                try (BufferedWriter out = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                    out.write(subject);
+                    for (Topic t : topics) {
+                        out.newLine();
+                        out.write(t.getName());
+                    }
+                    out.newLine();
+                }
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            stored.add(name);
+        } catch (IOException e) {
+            LOGGER.error("Could not archive deck of {} in {}", subject, directory, e);
+        }
+    }
+
+    /**
+     * {@link #store} on the archive's writer thread. A version still pending when the process ends is
+     * archived with the next draw from it.
+     */
+    public void storeAsync(String subject, List<Topic> topics) {
+        List<Topic> copy = List.copyOf(topics);
+        writer.execute(() -> store(subject, copy));
+    }
+
+    /**
+     * All archived decks by {@link #key(String, String)}. Unreadable files are skipped with a warning;
+     * a missing directory is an empty archive.
+     */
+    public Map<String, Deck> load() throws IOException {
+        Map<String, Deck> decks = new HashMap<>();
+        if (!Files.isDirectory(directory)) return decks;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            for (Path file : stream) {
+                List<String> lines;
+                try {
+                    lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+                } catch (IOException e) {
+                    LOGGER.warn("Skipping unreadable deck {}: {}", file, e.toString());
+                    continue;
+                }
+                if (lines.isEmpty()) continue;
+                List<Topic> topics = new ArrayList<>(lines.size() - 1);
+                for (String line : lines.subList(1, lines.size())) {
+                    topics.add(new Topic(line));
+                }
+                String subject = lines.get(0);
+                decks.put(key(subject, DrawRecord.deckHash(topics)), new Deck(subject, List.copyOf(topics)));
+            }
+        }
+        return decks;
+    }
+
+    /** Lookup key of a deck version: subject plus {@link DrawRecord#deckHash}. */
+    public static String key(String subject, String deckHash) {
+        return subject + '\n' + deckHash;
+    }
+
+    private static String fileName(String subject, List<Topic> topics) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            md.update(subject.getBytes(StandardCharsets.UTF_8));
+            for (Topic t : topics) {
+                md.update((byte) '\n');
+                md.update(t.getName().getBytes(StandardCharsets.UTF_8));
+            }
+            return HexFormat.of().formatHex(md.digest()) + SUFFIX;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package at.htlle.auk.shuffler.audit;
+
+import at.htlle.auk.shuffler.model.Topic;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * One audited draw as written to the log by the controller.
+ *
+ * Format (single line, user part optional):
+ * <pre>
+ * Subject=POS | user=Name | selected=[a, b] | final=a | seed=-42 | perm=1234 | slots=[3, 5] | deck=1a2b3c4d
+ * </pre>
+ * {@code slots} are the grid positions of the two revealed cards, {@code deck} is a short hash of the
+ * subject's topic list at draw time so a later pool change is told apart from a forged record.
+ * Records written before seeding was introduced have no seed and are not matched by {@link #parse(String)}.
+ */
+public record DrawRecord(String subject,
+                         String user,
+                         String selected,
+                         String finalChoice,
+                         long seed,
+                         BigInteger permutationIndex,
+                         int firstSlot,
+                         int secondSlot,
+                         String deckHash) {
+
+    /** Audit line for the log; the user part is left out when no name was entered. */
+    public String format() {
+        String userPart = (user != null) ? " | user=" + user : "";
+        return String.format("Subject=%s%s | selected=[%s] | final=%s | seed=%d | perm=%s | slots=[%d, %d] | deck=%s",
+                subject, userPart, selected, finalChoice, seed, permutationIndex, firstSlot, secondSlot, deckHash);
+    }
+
+    /**
+     * Parses a log line (with or without the logback prefix). Returns {@code null} for anything
+     * that is not a seeded draw record.
+     *
+     * Fields are cut from the end with {@code lastIndexOf} instead of a regex: topics may contain ", "
+     * but never " | ", and the verifier parses millions of lines.
+     */
+    public static DrawRecord parse(String line) {
+        int start = line.indexOf("Subject=");
+        if (start < 0) return null;
+        int end = line.length();
+
+        int deck = line.lastIndexOf(" | deck=", end);
+        int slots = line.lastIndexOf(" | slots=[", deck);
+        int perm = line.lastIndexOf(" | perm=", slots);
+        int seed = line.lastIndexOf(" | seed=", perm);
+        int fin = line.lastIndexOf(" | final=", seed);
+        int sel = line.lastIndexOf(" | selected=[", fin);
+        if (deck < 0 || slots < 0 || perm < 0 || seed < 0 || fin < 0 || sel < start) return null;
+        if (line.charAt(fin - 1) != ']' || line.charAt(deck - 1) != ']') return null;
+
+        try {
+            int comma = line.indexOf(", ", slots);
+            if (comma < 0 || comma > deck) return null;
+            int firstSlot = Integer.parseInt(line, slots + 10, comma, 10);
+            int secondSlot = Integer.parseInt(line, comma + 2, deck - 1, 10);
+            long seedValue = Long.parseLong(line, seed + 8, perm, 10);
+            BigInteger permIndex = new BigInteger(line.substring(perm + 8, slots));
+            String deckHash = line.substring(deck + 8, end);
+            if (permIndex.signum() < 0 || firstSlot < 0 || secondSlot < 0 || deckHash.isEmpty()) return null;
+
+            String head = line.substring(start + 8, sel);
+            int userAt = head.indexOf(" | user=");
+            String subject = userAt < 0 ? head : head.substring(0, userAt);
+            String user = userAt < 0 ? null : head.substring(userAt + 8);
+
+            return new DrawRecord(subject, user, line.substring(sel + 13, fin - 1), line.substring(fin + 9, seed),
+                    seedValue, permIndex, firstSlot, secondSlot, deckHash);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /** Short (8 hex digits) hash of the topic names in pool order. */
+    public static String deckHash(List<Topic> topics) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            for (Topic t : topics) {
+                md.update(t.getName().getBytes(StandardCharsets.UTF_8));
+                md.update((byte) '\n');
+            }
+            return HexFormat.of().formatHex(md.digest(), 0, 4);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package at.htlle.auk.shuffler.audit;
+
+import java.math.BigInteger;
+import java.security.SecureRandom;
+import java.util.Random;
+
+/**
+ * Replayable shuffle: the permutation of a round is fully determined by its seed.
+ *
+ * The algorithm is a plain Fisher-Yates over the slot indexes driven by {@link java.util.Random},
+ * whose sequence is specified by the JDK and therefore stable across versions. Do not change it,
+ * otherwise old audit records can no longer be verified.
+ */
+public final class SeededShuffle {
+
+    private static final SecureRandom SEEDS = new SecureRandom();
+
+    private SeededShuffle() {
+    }
+
+    /** Fresh, unpredictable seed for a new round. */
+    public static long newSeed() {
+        return SEEDS.nextLong();
+    }
+
+    /**
+     * Permutation of {@code 0..size-1} for the given seed.
+     * {@code result[slot]} is the original (pool order) index of the card placed into that slot.
+     */
+    public static int[] permutation(long seed, int size) {
+        int[] perm = new int[size];
+        for (int i = 0; i < size; i++) {
+            perm[i] = i;
+        }
+        Random rnd = new Random(seed);
+        for (int i = size - 1; i > 0; i--) {
+            int j = rnd.nextInt(i + 1);
+            int tmp = perm[i];
+            perm[i] = perm[j];
+            perm[j] = tmp;
+        }
+        return perm;
+    }
+
+    /**
+     * Lexicographic index (Lehmer code) of a permutation, 0 for the identity.
+     * Stored next to the seed so a record can be checked even without replaying {@link Random}.
+     */
+    public static BigInteger index(int[] perm) {
+        int n = perm.length;
+        BigInteger result = BigInteger.ZERO;
+        for (int i = 0; i < n; i++) {
+            int smaller = 0;
+            for (int j = i + 1; j < n; j++) {
+                if (perm[j] < perm[i]) smaller++;
+            }
+            result = result.multiply(BigInteger.valueOf(n - i)).add(BigInteger.valueOf(smaller));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,87 @@
+package at.htlle.auk.shuffler.controller;
+
+import javafx.animation.AnimationTimer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Adaptive animation quality for the card animations.
+ *
+ * During the first frames of every shuffle the frame pacing is measured. If the machine falls behind,
+ * the level is lowered one step: the cards of that shuffle that have not started yet already use it, and it is
+ * kept for the following rounds; after a few smooth shuffles it is raised again. All levels keep the same durations, so a round takes the same time on every PC;
+ * lower levels only do less work per frame:
+ * - FULL:          flip (2 x rotate) then move, smoothed card backs
+ * - NO_SMOOTHING:  as FULL, card backs drawn without smoothing
+ * - DISCRETE_FLIP: flips skip their intermediate frames (face switches at the end of the flip time)
+ * - COMBINED:      flip and move collapsed into one move phase, face switches at the start
+ *
+ * Disable with {@code -Dshuffler.animation=full}.
+ */
+final class AnimationQuality {
+
+    enum Level { FULL, NO_SMOOTHING, DISCRETE_FLIP, COMBINED }
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AnimationQuality.class);
+
+    private static final boolean ADAPTIVE = !"full".equalsIgnoreCase(System.getProperty("shuffler.animation"));
+
+    private static final int SAMPLE_FRAMES = 12;
+    // mean frame interval above this (~40 fps) counts as behind, below SMOOTH_MS (~55 fps) as smooth
+    private static final double BEHIND_MS = 25.0;
+    private static final double SMOOTH_MS = 18.0;
+    private static final int SMOOTH_RUNS_TO_RAISE = 3;
+
+    private Level level = Level.FULL;
+    private int smoothRuns = 0;
+    private AnimationTimer sampler;
+
+    Level level() {
+        return level;
+    }
+
+    /**
+     * Measure the next frames (call right after starting the shuffle animation).
+     * {@code onLowered} runs when the level was lowered, so the shuffle can switch what has not started yet
+     * (smoothing, the animations of cards still waiting for their stagger delay) to the new level.
+     */
+    void sample(Runnable onLowered) {
+        if (!ADAPTIVE) return;
+        if (sampler != null) sampler.stop();
+
+        sampler = new AnimationTimer() {
+            private long first = -1;
+            private int frames = 0;
+
+            @Override
+            public void handle(long now) {
+                if (first < 0) {
+                    first = now;
+                    return;
+                }
+                if (++frames < SAMPLE_FRAMES) return;
+                stop();
+                sampler = null;
+                evaluate((now - first) / 1_000_000.0 / frames, onLowered);
+            }
+        };
+        sampler.start();
+    }
+
+    private void evaluate(double meanFrameMs, Runnable onLowered) {
+        if (meanFrameMs > BEHIND_MS) {
+            smoothRuns = 0;
+            if (level.ordinal() < Level.values().length - 1) {
+                level = Level.values()[level.ordinal() + 1];
+                LOGGER.debug("Animation quality lowered to {} (mean frame {} ms)", level, String.format("%.1f", meanFrameMs));
+                if (onLowered != null) onLowered.run();
+            }
+        } else if (meanFrameMs < SMOOTH_MS && level != Level.FULL) {
+            if (++smoothRuns >= SMOOTH_RUNS_TO_RAISE) {
+                smoothRuns = 0;
+                level = Level.values()[level.ordinal() - 1];
+                LOGGER.debug("Animation quality raised to {} (mean frame {} ms)", level, String.format("%.1f", meanFrameMs));
+            }
+        }
+    }
+}
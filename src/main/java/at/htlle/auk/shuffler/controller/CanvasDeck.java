@@ -0,0 +1,554 @@
+package at.htlle.auk.shuffler.controller;
+
+import javafx.animation.AnimationTimer;
+import javafx.animation.Interpolator;
+import javafx.css.CssMetaData;
+import javafx.css.SimpleStyleableStringProperty;
+import javafx.css.Styleable;
+import javafx.css.StyleableProperty;
+import javafx.css.StyleableStringProperty;
+import javafx.css.converter.StringConverter;
+import javafx.geometry.VPos;
+import javafx.scene.Cursor;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.layout.Region;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import javafx.scene.text.Text;
+import javafx.scene.text.TextAlignment;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.DoubleConsumer;
+import java.util.function.IntConsumer;
+
+/**
+ * Lightweight deck renderer: draws all cards onto a single {@link Canvas}.
+ *
+ * Used instead of the node based cards (StackPane/Label/ImageView per card, CSS, bindings) when the
+ * application runs with {@code -Dshuffler.renderer=canvas}, e.g. on old thin clients with the software
+ * pipeline. Looks like styles.css (white card, grey/gold/green border, dimmed not-chosen cards) but
+ * everything is drawn directly: flips are a horizontal squash, moves are offsets, clicks are hit-tested here.
+ *
+ * Cards are addressed by slot (grid position, row-major, 4 columns). The canvas is only redrawn while
+ * an animation changes a card or when size/state changes; an idle deck costs nothing.
+ *
+ * The topic font family comes from the stylesheet ({@code -card-font-family}, as for the node cards), the
+ * timings follow {@code shuffler.animation.rate} and the quality levels of {@link AnimationQuality}.
+ */
+class CanvasDeck extends Region {
+
+    enum State { NONE, SELECTED, CHOSEN, NOT_CHOSEN }
+
+    // redraw counter in the node properties, so the projector mirror sees canvas changes (see MirrorView)
+    private static final String REDRAWS = "shuffler.redraws";
+
+    private static final int COLUMNS = 4;
+    private static final double GAP = 12;
+    private static final double ARC = 20;
+
+    private static final Color BORDER = Color.web("#d0d0d0");
+    private static final Color SELECTED_BORDER = Color.GOLD;
+    private static final Color CHOSEN_BORDER = Color.web("#28a745");
+    private static final Color TEXT = Color.web("#222");
+    private static final Color SHADOW = Color.rgb(0, 0, 0, 0.12);
+
+    private static final CssMetaData<CanvasDeck, String> FAMILY = new CssMetaData<>(
+            "-card-font-family", StringConverter.getInstance(), CardLabel.DEFAULT_FAMILY) {
+        @Override
+        public boolean isSettable(CanvasDeck deck) {
+            return !deck.family.isBound();
+        }
+
+        @Override
+        public StyleableProperty<String> getStyleableProperty(CanvasDeck deck) {
+            return deck.family;
+        }
+    };
+
+    private static final List<CssMetaData<? extends Styleable, ?>> CSS_META_DATA;
+
+    static {
+        List<CssMetaData<? extends Styleable, ?>> list = new ArrayList<>(Region.getClassCssMetaData());
+        list.add(FAMILY);
+        CSS_META_DATA = Collections.unmodifiableList(list);
+    }
+
+    private static final class Card {
+        final String text;
+        List<String> lines = List.of();
+        double angle;       // 0 = front, 180 = back
+        double offsetX;     // translate relative to the slot position
+        double offsetY;
+        double scale = 1.0;
+        State state = State.NONE;
+        boolean clickable = true;
+
+        Card(String text) {
+            this.text = text;
+        }
+    }
+
+    private static final class Tween {
+        final Card card;
+        final DoubleConsumer target;
+        final double from;
+        final double to;
+        final long delayNanos;
+        final long durationNanos;
+        final Interpolator interpolator;
+        final Runnable onFinished;
+        long start = -1;
+        double last = Double.NaN;
+
+        Tween(Card card, DoubleConsumer target, double from, double to, double delayMs, double durationMs,
+              Interpolator interpolator, Runnable onFinished) {
+            this.card = card;
+            this.target = target;
+            this.from = from;
+            this.to = to;
+            this.delayNanos = (long) (delayMs * 1_000_000);
+            this.durationNanos = Math.max(1, (long) (durationMs * 1_000_000));
+            this.interpolator = interpolator;
+            this.onFinished = onFinished;
+        }
+    }
+
+    private final Canvas canvas = new Canvas();
+    private final Image backImage;
+    private final List<Card> slots = new ArrayList<>();
+    private final List<Tween> tweens = new ArrayList<>();
+    // single measuring node, reused for all font fitting and line wrapping
+    private final Text measuring = new Text();
+
+    private final StyleableStringProperty family =
+            new SimpleStyleableStringProperty(FAMILY, this, "fontFamily", CardLabel.DEFAULT_FAMILY) {
+                @Override
+                protected void invalidated() {
+                    fittedWidth = -1;
+                    redraw();
+                }
+            };
+
+    private IntConsumer onCardClicked;
+    private Font font = Font.font(CardLabel.DEFAULT_FAMILY, CardLabel.DEFAULT_SIZE);
+    private Font boldFont = Font.font(CardLabel.DEFAULT_FAMILY, FontWeight.BOLD, CardLabel.DEFAULT_SIZE);
+    private double fittedWidth = -1;
+    private double fittedHeight = -1;
+
+    private final AnimationTimer timer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            step(now);
+        }
+    };
+    private boolean timerRunning = false;
+    private long redraws = 0;
+    private AnimationQuality.Level level = AnimationQuality.Level.FULL;
+    // landing callback of the running shuffle, null when no shuffle runs (see setQuality)
+    private Runnable shuffleLanded;
+
+    CanvasDeck(Image backImage) {
+        this.backImage = backImage;
+        getStyleClass().add("canvas-deck");
+        getChildren().add(canvas);
+        setMinSize(0, 0);
+        setPrefSize(0, 0);
+        setMaxSize(Double.MAX_VALUE, Double.MAX_VALUE);
+        setCursor(Cursor.HAND);
+        canvas.setOnMouseClicked(this::onMouseClicked);
+        canvas.setOnMouseMoved(e -> setCursor(hitTest(e.getX(), e.getY()) >= 0 ? Cursor.HAND : Cursor.DEFAULT));
+    }
+
+    void setOnCardClicked(IntConsumer handler) {
+        this.onCardClicked = handler;
+    }
+
+    /** New deck in pool order, all cards face up and clickable. */
+    void setTopics(List<String> topics) {
+        tweens.clear();
+        shuffleLanded = null;
+        slots.clear();
+        for (String t : topics) {
+            slots.add(new Card(t));
+        }
+        fittedWidth = -1;
+        requestLayout();
+        redraw();
+    }
+
+    int size() {
+        return slots.size();
+    }
+
+    String topicAt(int slot) {
+        return slots.get(slot).text;
+    }
+
+    void setState(int slot, State state) {
+        slots.get(slot).state = state;
+        redraw();
+    }
+
+    State stateAt(int slot) {
+        return slots.get(slot).state;
+    }
+
+    void setClickable(int slot, boolean clickable) {
+        slots.get(slot).clickable = clickable;
+    }
+
+    void setAllClickable(boolean clickable) {
+        for (Card c : slots) {
+            c.clickable = clickable;
+        }
+    }
+
+    /**
+     * Quality level of the following animations (see ShuffleController.shuffleAnimation). Cards of a running
+     * shuffle that have not started yet switch to it as well.
+     */
+    void setQuality(AnimationQuality.Level level) {
+        this.level = level;
+        if (shuffleLanded != null) {
+            long now = System.nanoTime();
+            for (Card c : slots) {
+                long wait = Long.MAX_VALUE;
+                for (Tween t : tweens) {
+                    if (t.card == c) wait = Math.min(wait, t.start < 0 ? t.delayNanos : t.delayNanos - (now - t.start));
+                }
+                // landed, started, or starts with the next frame
+                if (wait == Long.MAX_VALUE || wait < ShuffleController.FRAME_MS * 1_000_000) continue;
+                tweens.removeIf(t -> t.card == c);
+                shuffleTweens(c, wait / 1_000_000.0 * ShuffleController.ANIMATION_RATE, shuffleLanded);
+            }
+        }
+        redraw();
+    }
+
+    /**
+     * Same choreography as the node deck: every card flips to its back (180 ms + 180 ms), then moves
+     * from its old slot to its new one (350 ms), staggered by 60 ms per slot.
+     * {@code perm[slot]} is the current slot of the card that ends up in {@code slot}.
+     */
+    void shuffle(int[] perm, Runnable onFinished) {
+        List<Card> old = new ArrayList<>(slots);
+        double[] oldX = new double[old.size()];
+        double[] oldY = new double[old.size()];
+        for (int i = 0; i < old.size(); i++) {
+            oldX[i] = slotX(i);
+            oldY[i] = slotY(i);
+        }
+        for (int i = 0; i < perm.length; i++) {
+            slots.set(i, old.get(perm[i]));
+        }
+
+        int[] pending = {slots.size()};
+        Runnable landed = () -> {
+            if (--pending[0] > 0) return;
+            shuffleLanded = null;
+            if (onFinished != null) onFinished.run();
+        };
+        shuffleLanded = landed;
+        for (int i = 0; i < slots.size(); i++) {
+            Card c = slots.get(i);
+            c.offsetX = oldX[perm[i]] - slotX(i);
+            c.offsetY = oldY[perm[i]] - slotY(i);
+            shuffleTweens(c, i * 60, landed);
+        }
+    }
+
+    /** Shuffle animation of one card at the current level, ending in its slot. */
+    private void shuffleTweens(Card c, double delay, Runnable onLanded) {
+        double move = delay + 360;
+        double moveMs = 350;
+        switch (level) {
+            case COMBINED -> {
+                // one phase: back shown immediately, the card just moves
+                c.angle = 180;
+                move = delay;
+                moveMs = 710;
+            }
+            case DISCRETE_FLIP ->
+                // no flip frames: the back shows when the flip time is over
+                animate(c, v -> c.angle = v, 0, 180, delay, 360, Interpolator.DISCRETE, null);
+            default -> {
+                animate(c, v -> c.angle = v, 0, 90, delay, 180, Interpolator.LINEAR, null);
+                animate(c, v -> c.angle = v, 90, 180, delay + 180, 180, Interpolator.LINEAR, null);
+            }
+        }
+        animate(c, v -> c.offsetX = v, c.offsetX, 0, move, moveMs, Interpolator.EASE_BOTH, null);
+        animate(c, v -> c.offsetY = v, c.offsetY, 0, move, moveMs, Interpolator.EASE_BOTH, onLanded);
+    }
+
+    /** Flip a card from back to front (200 ms + 200 ms, or one switch after 400 ms at DISCRETE_FLIP and below). */
+    void reveal(int slot, Runnable onFinished) {
+        Card c = slots.get(slot);
+        if (level.compareTo(AnimationQuality.Level.DISCRETE_FLIP) >= 0) {
+            animate(c, v -> c.angle = v, c.angle, 0, 0, 400, Interpolator.DISCRETE, onFinished);
+            return;
+        }
+        animate(c, v -> c.angle = v, c.angle, 90, 0, 200, Interpolator.LINEAR, null);
+        animate(c, v -> c.angle = v, 90, 0, 200, 200, Interpolator.LINEAR, onFinished);
+    }
+
+    /** Short scale bump (250 ms out and back) for the final choice. */
+    void pulse(int slot) {
+        Card c = slots.get(slot);
+        animate(c, v -> c.scale = v, 1.0, 1.08, 0, 250, Interpolator.EASE_BOTH, null);
+        animate(c, v -> c.scale = v, 1.08, 1.0, 250, 250, Interpolator.EASE_BOTH, null);
+    }
+
+    /** Delay and duration at the configured rate (see ShuffleController.ANIMATION_RATE). */
+    private void animate(Card card, DoubleConsumer target, double from, double to, double delayMs, double durationMs,
+                         Interpolator interpolator, Runnable onFinished) {
+        tweens.add(new Tween(card, target, from, to, delayMs / ShuffleController.ANIMATION_RATE,
+                durationMs / ShuffleController.ANIMATION_RATE, interpolator, onFinished));
+        if (!timerRunning) {
+            timerRunning = true;
+            timer.start();
+        }
+    }
+
+    private void step(long now) {
+        List<Runnable> finished = new ArrayList<>();
+        boolean changed = false;
+        // in insertion order, so chained tweens on the same value apply in sequence within one frame
+        for (Iterator<Tween> it = tweens.iterator(); it.hasNext(); ) {
+            Tween t = it.next();
+            if (t.start < 0) t.start = now;
+            long elapsed = now - t.start - t.delayNanos;
+            if (elapsed < 0) continue;
+            double fraction = Math.min(1.0, (double) elapsed / t.durationNanos);
+            double value = t.interpolator.interpolate(t.from, t.to, fraction);
+            if (value != t.last) {
+                t.target.accept(value);
+                t.last = value;
+                changed = true;
+            }
+            if (fraction >= 1.0) {
+                it.remove();
+                if (t.onFinished != null) finished.add(t.onFinished);
+            }
+        }
+        // frames in which every tween waits or holds (stagger, discrete flips) draw nothing
+        if (changed) redraw();
+        if (tweens.isEmpty()) {
+            timer.stop();
+            timerRunning = false;
+        }
+        // callbacks may start new animations, so run them after the bookkeeping above
+        finished.forEach(Runnable::run);
+    }
+
+    @Override
+    protected void layoutChildren() {
+        double w = snapSizeX(getWidth());
+        double h = snapSizeY(getHeight());
+        if (canvas.getWidth() != w || canvas.getHeight() != h) {
+            canvas.setWidth(w);
+            canvas.setHeight(h);
+            redraw();
+        }
+    }
+
+    /* ---------------------------------------------------------------------- geometry */
+
+    private int rows() {
+        return Math.max(2, (slots.size() + COLUMNS - 1) / COLUMNS);
+    }
+
+    private double cellWidth() {
+        return Math.max(0, (canvas.getWidth() - (COLUMNS - 1) * GAP) / COLUMNS);
+    }
+
+    private double cellHeight() {
+        return Math.max(0, (canvas.getHeight() - (rows() - 1) * GAP) / rows());
+    }
+
+    // same clamps as the node deck (see applyResponsiveBindings / styles.css)
+    private double cardWidth() {
+        return Math.max(120.0, Math.min(480.0, cellWidth()));
+    }
+
+    private double cardHeight() {
+        return Math.max(80.0, Math.min(360.0, cellHeight()));
+    }
+
+    private double slotX(int slot) {
+        return (slot % COLUMNS) * (cellWidth() + GAP) + (cellWidth() - cardWidth()) / 2;
+    }
+
+    private double slotY(int slot) {
+        return (slot / COLUMNS) * (cellHeight() + GAP) + (cellHeight() - cardHeight()) / 2;
+    }
+
+    private int hitTest(double x, double y) {
+        double w = cardWidth();
+        double h = cardHeight();
+        for (int i = 0; i < slots.size(); i++) {
+            Card c = slots.get(i);
+            double cx = slotX(i) + c.offsetX;
+            double cy = slotY(i) + c.offsetY;
+            if (c.clickable && x >= cx && x <= cx + w && y >= cy && y <= cy + h) return i;
+        }
+        return -1;
+    }
+
+    private void onMouseClicked(MouseEvent e) {
+        int slot = hitTest(e.getX(), e.getY());
+        if (slot >= 0 && onCardClicked != null) onCardClicked.accept(slot);
+    }
+
+    /* ---------------------------------------------------------------------- text */
+
+    /** Largest font size (8..90) at which every topic fits into 90% x 70% of a card; wraps all topics. */
+    private void fitText() {
+        double w = cardWidth();
+        double h = cardHeight();
+        if (w == fittedWidth && h == fittedHeight) return;
+        fittedWidth = w;
+        fittedHeight = h;
+
+        int wrapWidth = (int) Math.floor(w * 0.90);
+        int maxHeight = (int) Math.floor(h * 0.70);
+        List<String> texts = new ArrayList<>(slots.size());
+        for (Card c : slots) {
+            texts.add(c.text);
+        }
+        String family = this.family.get();
+        int best = FontFitCache.fontSize(family, texts, wrapWidth, maxHeight, () -> {
+            int lo = 8;
+            int hi = 90;
+            int fits = lo;
+            while (lo <= hi) {
+                int mid = (lo + hi) / 2;
+                if (allFit(Font.font(family, mid), wrapWidth, maxHeight)) {
+                    fits = mid;
+                    lo = mid + 1;
+                } else {
+                    hi = mid - 1;
+                }
+            }
+            return fits;
+        });
+        font = Font.font(family, best);
+        boldFont = Font.font(family, FontWeight.BOLD, best);
+        for (Card c : slots) {
+            c.lines = wrap(c.text, font, wrapWidth);
+        }
+    }
+
+    private boolean allFit(Font f, double wrapWidth, double maxHeight) {
+        measuring.setFont(f);
+        measuring.setWrappingWidth(wrapWidth);
+        for (Card c : slots) {
+            measuring.setText(c.text);
+            if (measuring.getLayoutBounds().getHeight() > maxHeight + 1.0) return false;
+        }
+        return true;
+    }
+
+    private List<String> wrap(String text, Font f, double maxWidth) {
+        measuring.setFont(f);
+        measuring.setWrappingWidth(0);
+        List<String> lines = new ArrayList<>();
+        StringBuilder line = new StringBuilder();
+        for (String word : text.split(" ")) {
+            String candidate = line.isEmpty() ? word : line + " " + word;
+            measuring.setText(candidate);
+            if (!line.isEmpty() && measuring.getLayoutBounds().getWidth() > maxWidth) {
+                lines.add(line.toString());
+                line.setLength(0);
+                line.append(word);
+            } else {
+                line.setLength(0);
+                line.append(candidate);
+            }
+        }
+        if (!line.isEmpty()) lines.add(line.toString());
+        return lines;
+    }
+
+    /* ---------------------------------------------------------------------- drawing */
+
+    private void redraw() {
+        getProperties().put(REDRAWS, ++redraws);
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        gc.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+        if (slots.isEmpty() || canvas.getWidth() <= 0 || canvas.getHeight() <= 0) return;
+
+        fitText();
+        gc.setImageSmoothing(level == AnimationQuality.Level.FULL);
+        double w = cardWidth();
+        double h = cardHeight();
+        for (int i = 0; i < slots.size(); i++) {
+            drawCard(gc, slots.get(i), slotX(i), slotY(i), w, h);
+        }
+    }
+
+    private void drawCard(GraphicsContext gc, Card c, double x, double y, double w, double h) {
+        double squash = Math.abs(Math.cos(Math.toRadians(c.angle)));
+        if (squash < 0.01) return; // edge-on during a flip
+
+        gc.save();
+        gc.translate(x + c.offsetX + w / 2, y + c.offsetY + h / 2);
+        gc.scale(c.scale * squash, c.scale);
+        gc.setGlobalAlpha(c.state == State.NOT_CHOSEN ? 0.55 : 1.0);
+
+        // cheap shadow instead of a dropshadow effect
+        if (c.state != State.NOT_CHOSEN) {
+            gc.setFill(SHADOW);
+            gc.fillRoundRect(-w / 2 + 1, -h / 2 + 3, w, h, ARC, ARC);
+        }
+        gc.setFill(Color.WHITE);
+        gc.fillRoundRect(-w / 2, -h / 2, w, h, ARC, ARC);
+
+        boolean back = c.angle > 90;
+        if (back) {
+            double scale = Math.min(w / backImage.getWidth(), h / backImage.getHeight());
+            double iw = backImage.getWidth() * scale;
+            double ih = backImage.getHeight() * scale;
+            gc.drawImage(backImage, -iw / 2, -ih / 2, iw, ih);
+        } else {
+            Font f = c.state == State.CHOSEN ? boldFont : font;
+            gc.setFont(f);
+            gc.setFill(TEXT);
+            gc.setTextAlign(TextAlignment.CENTER);
+            gc.setTextBaseline(VPos.CENTER);
+            double lineHeight = f.getSize() * 1.2;
+            double top = -(c.lines.size() - 1) * lineHeight / 2;
+            for (int i = 0; i < c.lines.size(); i++) {
+                gc.fillText(c.lines.get(i), 0, top + i * lineHeight);
+            }
+        }
+
+        switch (c.state) {
+            case SELECTED -> stroke(gc, SELECTED_BORDER, 4, w, h);
+            case CHOSEN -> stroke(gc, CHOSEN_BORDER, 4, w, h);
+            default -> stroke(gc, BORDER, 2, w, h);
+        }
+        gc.restore();
+    }
+
+    public static List<CssMetaData<? extends Styleable, ?>> getClassCssMetaData() {
+        return CSS_META_DATA;
+    }
+
+    @Override
+    public List<CssMetaData<? extends Styleable, ?>> getCssMetaData() {
+        return CSS_META_DATA;
+    }
+
+    private static void stroke(GraphicsContext gc, Color color, double width, double w, double h) {
+        gc.setStroke(color);
+        gc.setLineWidth(width);
+        gc.strokeRoundRect(-w / 2 + width / 2, -h / 2 + width / 2, w - width, h - width, ARC, ARC);
+    }
+}
@@ -0,0 +1,142 @@
+package at.htlle.auk.shuffler.controller;
+
+import javafx.css.CssMetaData;
+import javafx.css.SimpleStyleableBooleanProperty;
+import javafx.css.SimpleStyleableDoubleProperty;
+import javafx.css.SimpleStyleableStringProperty;
+import javafx.css.StyleOrigin;
+import javafx.css.Styleable;
+import javafx.css.StyleableBooleanProperty;
+import javafx.css.StyleableDoubleProperty;
+import javafx.css.StyleableProperty;
+import javafx.css.StyleableStringProperty;
+import javafx.css.converter.BooleanConverter;
+import javafx.css.converter.SizeConverter;
+import javafx.css.converter.StringConverter;
+import javafx.scene.control.Label;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Topic label of a card. Its font is built from three styleable properties instead of -fx-font:
+ * - {@code -card-font-family} and {@code -card-font-bold} come from the stylesheet (incl. the :chosen state)
+ * - {@code fitSize} is set by the font fit in code; the stylesheet does not declare it, so CSS never resets it
+ *
+ * With -fx-font the fitted size had to be forced with an inline style on every label (every re-fit meant
+ * parsing a style string and re-matching the whole card). Here a re-fit only sets a double, and a state
+ * change of the card (pseudo-class) only re-evaluates the two font properties.
+ */
+final class CardLabel extends Label {
+
+    static final double DEFAULT_SIZE = 14; // .root font size in styles.css
+    static final String DEFAULT_FAMILY = "Monospaced";
+
+    private static final CssMetaData<CardLabel, String> FAMILY = new CssMetaData<>(
+            "-card-font-family", StringConverter.getInstance(), DEFAULT_FAMILY) {
+        @Override
+        public boolean isSettable(CardLabel label) {
+            return !label.family.isBound();
+        }
+
+        @Override
+        public StyleableProperty<String> getStyleableProperty(CardLabel label) {
+            return label.family;
+        }
+    };
+
+    private static final CssMetaData<CardLabel, Boolean> BOLD = new CssMetaData<>(
+            "-card-font-bold", BooleanConverter.getInstance(), false) {
+        @Override
+        public boolean isSettable(CardLabel label) {
+            return !label.bold.isBound();
+        }
+
+        @Override
+        public StyleableProperty<Boolean> getStyleableProperty(CardLabel label) {
+            return label.bold;
+        }
+    };
+
+    private static final CssMetaData<CardLabel, Number> FIT_SIZE = new CssMetaData<>(
+            "-card-fit-size", SizeConverter.getInstance(), DEFAULT_SIZE) {
+        @Override
+        public boolean isSettable(CardLabel label) {
+            return !label.fitSize.isBound();
+        }
+
+        @Override
+        public StyleableProperty<Number> getStyleableProperty(CardLabel label) {
+            return label.fitSize;
+        }
+    };
+
+    private static final List<CssMetaData<? extends Styleable, ?>> CSS_META_DATA;
+
+    static {
+        // Label's own metadata without -fx-font: the font is derived from the properties below
+        List<CssMetaData<? extends Styleable, ?>> list = new ArrayList<>();
+        for (CssMetaData<? extends Styleable, ?> meta : Label.getClassCssMetaData()) {
+            if (!"-fx-font".equals(meta.getProperty())) list.add(meta);
+        }
+        list.add(FAMILY);
+        list.add(BOLD);
+        list.add(FIT_SIZE);
+        CSS_META_DATA = Collections.unmodifiableList(list);
+    }
+
+    private final StyleableStringProperty family =
+            new SimpleStyleableStringProperty(FAMILY, this, "fontFamily", DEFAULT_FAMILY) {
+                @Override
+                protected void invalidated() {
+                    updateFont();
+                }
+            };
+
+    private final StyleableBooleanProperty bold =
+            new SimpleStyleableBooleanProperty(BOLD, this, "fontBold", false) {
+                @Override
+                protected void invalidated() {
+                    updateFont();
+                }
+            };
+
+    private final StyleableDoubleProperty fitSize =
+            new SimpleStyleableDoubleProperty(FIT_SIZE, this, "fitSize", DEFAULT_SIZE) {
+                @Override
+                protected void invalidated() {
+                    updateFont();
+                }
+            };
+
+    CardLabel(String text) {
+        super(text);
+        updateFont();
+    }
+
+    /** Font size from the font fit (px). */
+    void setFitSize(double size) {
+        fitSize.set(size);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void updateFont() {
+        Font font = Font.font(family.get(), bold.get() ? FontWeight.BOLD : FontWeight.NORMAL, fitSize.get());
+        if (font.equals(getFont())) return;
+        // the inner text node mirrors inherited -fx-font values (e.g. .root) into this property unless the
+        // current value has a higher origin, so apply it as INLINE (no style string is involved)
+        ((StyleableProperty<Font>) fontProperty()).applyStyle(StyleOrigin.INLINE, font);
+    }
+
+    public static List<CssMetaData<? extends Styleable, ?>> getClassCssMetaData() {
+        return CSS_META_DATA;
+    }
+
+    @Override
+    public List<CssMetaData<? extends Styleable, ?>> getControlCssMetaData() {
+        return CSS_META_DATA;
+    }
+}
@@ -0,0 +1,53 @@
+package at.htlle.auk.shuffler.controller;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntSupplier;
+
+/**
+ * Process wide cache of font-fit results (largest font size at which all topics of a deck fit into a card).
+ *
+ * Shared by all boards: in kiosk mode several boards with the same subject and card size only measure once.
+ * Sizes are keyed in whole pixels; callers measure with the same floored values, so a cached result is
+ * valid for every lookup with the same key. Small LRU, accessed on the FX thread only.
+ */
+final class FontFitCache {
+
+    // font sizes tried by the fit (binary search bounds)
+    static final int MIN_SIZE = 8;     // minimal readable font
+    static final int MAX_SIZE = 90;    // upper bound (will be clamped by measurements)
+
+    private static final int MAX_ENTRIES = 128;
+
+    private record Key(String family, List<String> texts, int wrapWidth, int maxHeight) {
+    }
+
+    private static final Map<Key, Integer> CACHE = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Integer> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    private FontFitCache() {
+    }
+
+    /**
+     * Cached font size for this deck and card size, computed with {@code fit} on a miss.
+     */
+    static int fontSize(String family, List<String> texts, int wrapWidth, int maxHeight, IntSupplier fit) {
+        // order does not matter for the fit, so shuffled decks hit the same entry
+        List<String> sorted = new ArrayList<>(texts);
+        Collections.sort(sorted);
+        Key key = new Key(family, List.copyOf(sorted), wrapWidth, maxHeight);
+        Integer size = CACHE.get(key);
+        if (size == null) {
+            size = fit.getAsInt();
+            CACHE.put(key, size);
+        }
+        return size;
+    }
+}
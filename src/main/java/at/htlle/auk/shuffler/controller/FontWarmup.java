@@ -0,0 +1,84 @@
+package at.htlle.auk.shuffler.controller;
+
+import at.htlle.auk.shuffler.csvreader.TopicFiller;
+import at.htlle.auk.shuffler.model.Topic;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import javafx.scene.text.Text;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Font warm-up on a background thread while the window is built: resolves the card font for every size the font
+ * fit can try and measures the character set of all pool topics (umlauts, ß, ...) at each of them, so font files,
+ * strikes, glyph metrics and line breaking are loaded before the first fit needs them (detached Text nodes may be
+ * used off the FX thread). Nothing is done on the FX thread.
+ *
+ * Off by default: headless, the first round was not measurably faster with it. Enable with -Dshuffler.warmup=true.
+ */
+public final class FontWarmup {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FontWarmup.class);
+
+    private static final boolean ENABLED = Boolean.getBoolean("shuffler.warmup");
+
+    // wide enough for long words, so wrapping is exercised like on a card
+    private static final double WRAP_WIDTH = 600;
+
+    private FontWarmup() {
+    }
+
+    /** Start the background warm-up (once per process, before the first board is built). */
+    public static void start() {
+        if (!ENABLED) return;
+        Thread t = new Thread(FontWarmup::warmUp, "font-warmup");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    private static void warmUp() {
+        long start = System.nanoTime();
+        try {
+            // shared with the boards: whoever comes first loads the pools
+            String chars = charset(TopicFiller.sharedTopics());
+
+            String family = CardLabel.DEFAULT_FAMILY;
+            Text measuring = new Text(chars);
+            measuring.setWrappingWidth(WRAP_WIDTH);
+            for (int size = FontFitCache.MIN_SIZE; size <= FontFitCache.MAX_SIZE; size++) {
+                measuring.setFont(Font.font(family, size));
+                measuring.getLayoutBounds();
+                measuring.setFont(Font.font(family, FontWeight.BOLD, size));
+                measuring.getLayoutBounds();
+            }
+            LOGGER.info("Font warm-up: {} sizes, {} characters in {} ms",
+                    FontFitCache.MAX_SIZE - FontFitCache.MIN_SIZE + 1, chars.codePointCount(0, chars.length()),
+                    (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            // only costs time on the first round
+            LOGGER.warn("Font warm-up failed", e);
+        }
+    }
+
+    /** Distinct characters of all topics, with a break opportunity every 16 (so wrapping is exercised). */
+    static String charset(Map<String, List<Topic>> pools) {
+        Set<Integer> codePoints = new TreeSet<>();
+        for (List<Topic> topics : pools.values()) {
+            for (Topic t : topics) {
+                if (t.getName() != null) t.getName().codePoints().filter(c -> c > ' ').forEach(codePoints::add);
+            }
+        }
+        StringBuilder sb = new StringBuilder();
+        int n = 0;
+        for (int c : codePoints) {
+            if (n++ > 0 && n % 16 == 1) sb.append(' ');
+            sb.appendCodePoint(c);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,131 @@
+package at.htlle.auk.shuffler.controller;
+
+import at.htlle.auk.shuffler.audit.DrawRecord;
+import at.htlle.auk.shuffler.audit.SeededShuffle;
+import at.htlle.auk.shuffler.model.Topic;
+
+import java.math.BigInteger;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * State of one round, the same for node and canvas cards. A card is identified by its topic ordinal
+ * (index in the subject's topic list); names are only looked up for the ledger and the audit line.
+ *
+ * - slots: after the shuffle {@code slot -> ordinal} is the recorded permutation (identity before)
+ * - picks: the (up to two) revealed cards as a bit set by ordinal, plus their reveal order for the audit line
+ */
+final class Round {
+
+    private final String subject;
+    private final List<Topic> topics;
+
+    private final BitSet picked;
+    private final int[] pickOrder = {-1, -1};
+    private int picks;
+
+    private int[] ordinalAt;   // slot -> ordinal, null until shuffled
+    private int[] slotOf;      // ordinal -> slot
+    private long seed;
+    private BigInteger permutationIndex;
+
+    Round(String subject, List<Topic> topics) {
+        this.subject = subject;
+        this.topics = topics;
+        this.picked = new BitSet(topics.size());
+    }
+
+    String subject() {
+        return subject;
+    }
+
+    int size() {
+        return topics.size();
+    }
+
+    List<Topic> topics() {
+        return topics;
+    }
+
+    String name(int ordinal) {
+        return topics.get(ordinal).getName();
+    }
+
+    boolean isShuffled() {
+        return ordinalAt != null;
+    }
+
+    /**
+     * Shuffle with a new recorded seed. Returns the permutation ({@code perm[slot]} = ordinal of the card
+     * that ends up in that slot; cards are in pool order before).
+     */
+    int[] shuffle() {
+        seed = SeededShuffle.newSeed();
+        ordinalAt = SeededShuffle.permutation(seed, topics.size());
+        permutationIndex = SeededShuffle.index(ordinalAt);
+        slotOf = new int[ordinalAt.length];
+        for (int slot = 0; slot < ordinalAt.length; slot++) {
+            slotOf[ordinalAt[slot]] = slot;
+        }
+        return ordinalAt;
+    }
+
+    long seed() {
+        return seed;
+    }
+
+    BigInteger permutationIndex() {
+        return permutationIndex;
+    }
+
+    int ordinalAt(int slot) {
+        return ordinalAt == null ? slot : ordinalAt[slot];
+    }
+
+    int slotOf(int ordinal) {
+        return slotOf == null ? ordinal : slotOf[ordinal];
+    }
+
+    /** Reveal a card; false if it is already revealed or two cards are. */
+    boolean pick(int ordinal) {
+        if (picks >= 2 || picked.get(ordinal)) return false;
+        picked.set(ordinal);
+        pickOrder[picks++] = ordinal;
+        return true;
+    }
+
+    boolean isPicked(int ordinal) {
+        return picked.get(ordinal);
+    }
+
+    int picks() {
+        return picks;
+    }
+
+    /** Ordinal of the first (0) or second (1) revealed card. */
+    int pickAt(int index) {
+        return pickOrder[index];
+    }
+
+    /** The revealed card that is not {@code ordinal}. */
+    int otherPick(int ordinal) {
+        return pickOrder[0] == ordinal ? pickOrder[1] : pickOrder[0];
+    }
+
+    /** Audit record of the final choice: names, seed, permutation and slots of the revealed cards. */
+    DrawRecord record(String user, int finalOrdinal) {
+        return new DrawRecord(subject, user,
+                nameOrUnknown(pickOrder[0]) + ", " + nameOrUnknown(pickOrder[1]),
+                nameOrUnknown(finalOrdinal),
+                seed, permutationIndex,
+                pickOrder[0] < 0 ? -1 : slotOf(pickOrder[0]),
+                pickOrder[1] < 0 ? -1 : slotOf(pickOrder[1]),
+                DrawRecord.deckHash(topics));
+    }
+
+    private String nameOrUnknown(int ordinal) {
+        if (ordinal < 0) return "<unknown>";
+        String name = name(ordinal);
+        return name == null || name.isBlank() ? "<unknown>" : name;
+    }
+}
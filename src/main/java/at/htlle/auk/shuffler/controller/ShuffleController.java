@@ -1,25 +1,37 @@
 package at.htlle.auk.shuffler.controller;
 
+import at.htlle.auk.shuffler.audit.DeckArchive;
+import at.htlle.auk.shuffler.audit.SeededShuffle;
 import at.htlle.auk.shuffler.csvreader.TopicFiller;
+import at.htlle.auk.shuffler.events.RoundEvent;
+import at.htlle.auk.shuffler.events.RoundEvents;
+import at.htlle.auk.shuffler.jfr.ChoiceEvent;
+import at.htlle.auk.shuffler.jfr.FontFitEvent;
+import at.htlle.auk.shuffler.jfr.RevealEvent;
+import at.htlle.auk.shuffler.jfr.ShuffleEvent;
+import at.htlle.auk.shuffler.ledger.DrawLedger;
 import at.htlle.auk.shuffler.model.Topic;
 import javafx.animation.*;
 import javafx.application.Platform;
 import javafx.beans.binding.Bindings;
 import javafx.beans.binding.DoubleBinding;
 import javafx.beans.value.ChangeListener;
+import javafx.css.PseudoClass;
+import javafx.event.ActionEvent;
+import javafx.event.EventHandler;
 import javafx.fxml.FXML;
 import javafx.geometry.Bounds;
-import javafx.geometry.Point2D;
+import javafx.geometry.Insets;
 import javafx.geometry.Pos;
-import javafx.scene.Node;
+import javafx.geometry.VPos;
 import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
 import javafx.scene.control.TextField;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.input.MouseEvent;
+import javafx.scene.layout.ColumnConstraints;
 import javafx.scene.layout.GridPane;
-import javafx.scene.layout.Pane;
 import javafx.scene.layout.StackPane;
 import javafx.scene.text.Font;
 import javafx.scene.text.Text;
@@ -30,7 +42,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.InputStream;
+import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 /**
  * Controller for the TopicShuffler UI.
@@ -40,17 +55,36 @@ import java.util.*;
  * - "Shuffle" flips every card to its back (logo) and animates positions
  * - click a card after shuffle -> flips it to front (reveals topic). User may reveal two cards.
  * - after second reveal: all remaining cards are revealed; user must then click one of the two selected
- *   to make the final choice (final card gets CSS class "chosen", other selected stays "selected").
+ *   to make the final choice (final card gets the CSS pseudo-class :chosen, the other one stays :selected).
  *
  * Notes:
  * - This controller expects a card-back image at:
  *   /at/htlle/auk/shuffler/images/card-back.png in resources.
  * - It logs final selections using SLF4J (INFO level). Configure Logback/SLF4J in your project for file logging.
+ *   Every shuffle uses a recorded seed (see {@link SeededShuffle}); seed, permutation index and the revealed
+ *   slots are part of the log line so the draw can be replayed by {@link at.htlle.auk.shuffler.audit.AuditVerifier}.
+ * - With -Dshuffler.renderer=canvas the deck is drawn by a single {@link CanvasDeck} instead of one node
+ *   tree per card (for weak machines); round logic and logging are the same.
+ * - Round state is kept by topic ordinal in {@link Round} (shuffle, revealed cards as a bit set); a node card
+ *   ({@link TopicCard}) carries its ordinal, topic names are only looked up for the ledger and the audit line.
  */
 public class ShuffleController {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ShuffleController.class);
 
+    // lightweight single-canvas deck instead of node cards (see CanvasDeck)
+    private static final boolean CANVAS_RENDERER = "canvas".equalsIgnoreCase(System.getProperty("shuffler.renderer"));
+
+    // card animations and pauses run this many times faster (bench / soak runs, -Dshuffler.animation.rate=10)
+    static final double ANIMATION_RATE = Math.max(1, Double.parseDouble(
+            System.getProperty("shuffler.animation.rate", "1")));
+
+    // one frame at 60 fps: a card whose stagger delay ends within it counts as started (see onShuffle)
+    static final double FRAME_MS = 1000.0 / 60;
+
+    // boards built so far in this process (numbers the boards in the round events)
+    private static final AtomicInteger BOARDS = new AtomicInteger();
+
     // debounce for resize events
     private final PauseTransition fontResizeDebounce = new PauseTransition(Duration.millis(180));
 
@@ -63,17 +97,68 @@ public class ShuffleController {
     @FXML private TextField nameField;
 
     private Map<String, List<Topic>> subjectTopics;
-    private final List<StackPane> cards = new ArrayList<>();
-    private final List<StackPane> selected = new ArrayList<>();
-    private boolean isShuffled = false;
+    // node cards in slot order (pool order until shuffled)
+    private final List<TopicCard> cards = new ArrayList<>();
+    // subject, topics by ordinal, shuffle and revealed cards of the current round
+    private Round round;
+
+    // card size bindings on the grid size: created once per controller and shared by all cards,
+    // so new rounds do not add listeners to grid.width/height
+    private DoubleBinding cardWidthBinding;
+    private DoubleBinding cardHeightBinding;
+    private boolean bindingRetryOnScene = false;
+
+    // drops animation effects on machines that cannot keep up (see AnimationQuality)
+    private final AnimationQuality quality = new AnimationQuality();
+
+    // next round's deck, prepared off-screen during the final choice (node cards only, see prepareNextDeck)
+    private final List<TopicCard> nextCards = new ArrayList<>();
+    private String nextSubject;
+    private double nextFontSize;
+    // last font-fit result (0 = not fitted yet), applied to prepared decks
+    private double fittedFontSize;
+
+    // shared draw ledger of several instances (null = not configured, see DrawLedger)
+    private final DrawLedger ledger = DrawLedger.shared();
 
+    // round events for stats / journal / displays; only offered to the subscribers' buffers (see RoundEvents)
+    private final RoundEvents events = RoundEvents.shared();
+    // board number in the events, in the order the boards are built (kiosk mode: several per process)
+    private final int board = BOARDS.incrementAndGet();
+
+    // canvas renderer only: the deck (addressed by slot)
+    private CanvasDeck canvasDeck;
+
+
+    /**
+     * Wiring for the precompiled view ({@link ShuffleView}): does what FXMLLoader does for ShuffleView.fxml
+     * (inject the fx:id fields, set the button handlers, call initialize).
+     */
+    void attach(ComboBox<String> subjectCombo, TextField nameField, javafx.scene.control.Button shuffleButton,
+                javafx.scene.control.Button newRoundButton, GridPane grid) {
+        this.subjectCombo = subjectCombo;
+        this.nameField = nameField;
+        this.newRoundButton = newRoundButton;
+        this.grid = grid;
+        shuffleButton.setOnAction(e -> onShuffle());
+        newRoundButton.setOnAction(e -> onNewRound());
+        initialize();
+    }
 
     @FXML
     public void initialize() {
         if (newRoundButton != null) {
             newRoundButton.setDisable(true);
         }
-        subjectTopics = TopicFiller.fillTopics();
+        // parsed once per process and shared by all boards (kiosk mode)
+        subjectTopics = TopicFiller.sharedTopics();
+        if (ledger != null) {
+            ledger.addListener(() -> Platform.runLater(this::applyLedger));
+        }
+        if (CANVAS_RENDERER) {
+            canvasDeck = new CanvasDeck(CardFactory.backImage);
+            canvasDeck.setOnCardClicked(this::onCanvasCardClicked);
+        }
         subjectCombo.getItems().addAll(subjectTopics.keySet());
         subjectCombo.setOnAction(e -> loadTopics());
         subjectCombo.getSelectionModel().selectFirst();
@@ -109,9 +194,8 @@ public class ShuffleController {
      * Load topics for the currently selected subject and create cards.
      */
     private void loadTopics() {
-        cards.clear();
-        selected.clear();
-        isShuffled = false;
+        discardNextDeck();
+        disposeCards();
         grid.getChildren().clear();
 
         // clear optional name on subject change
@@ -120,14 +204,14 @@ public class ShuffleController {
         }
 
         String subject = subjectCombo.getValue();
-        List<Topic> topics = subjectTopics.getOrDefault(subject, Collections.emptyList());
+        startRound(subject);
 
-        for (Topic t : topics) {
-            StackPane card = CardFactory.createCard(t.getName());
-            card.setOnMouseClicked(this::onCardClicked);
-            cards.add(card);
+        if (canvasDeck != null) {
+            showCanvasDeck();
+            return;
         }
 
+        createCards(round, cards);
         layoutCards();
     }
 
@@ -139,7 +223,7 @@ public class ShuffleController {
         grid.getChildren().clear();
 
         for (int i = 0; i < cards.size(); i++) {
-            StackPane card = cards.get(i);
+            TopicCard card = cards.get(i);
 
             // Reset any old animation transforms/rotations from previous runs
             card.setTranslateX(0);
@@ -153,6 +237,7 @@ public class ShuffleController {
 
         // Ensure responsive bindings are applied (safe to call repeatedly)
         applyResponsiveBindings();
+        applyLedger();
 
         // after grid.add(...) etc. -> ensure layout pass and schedule font adjustment
         grid.applyCss();
@@ -165,120 +250,294 @@ public class ShuffleController {
 
     @FXML
     private void onShuffle() {
-        if (isShuffled) return;
-        isShuffled = true;
+        if (round == null || round.isShuffled()) return;
+        long setupStart = System.nanoTime();
+        ShuffleEvent event = new ShuffleEvent();
+        event.begin();
+
+        if (canvasDeck != null) {
+            AnimationQuality.Level level = quality.level();
+            canvasDeck.setQuality(level);
+            event.cards = canvasDeck.size();
+            event.renderer = "canvas";
+            event.quality = level.name();
+            canvasDeck.shuffle(round.shuffle(), event::commit);
+            publishShuffled();
+            event.setup = System.nanoTime() - setupStart;
+            quality.sample(() -> canvasDeck.setQuality(quality.level()));
+            return;
+        }
 
-        // 1) remember old scene positions
-        Map<StackPane, Point2D> oldPositions = new HashMap<>();
-        for (StackPane card : cards) {
-            Point2D old = card.localToScene(0, 0);
-            oldPositions.put(card, old);
+        // 1) cell origins of the current grid (cards are still in pool order, slot i = cards[i])
+        double[] slotX = new double[cards.size()];
+        double[] slotY = new double[cards.size()];
+        for (int i = 0; i < cards.size(); i++) {
+            slotX[i] = cellX(i % 4);
+            slotY[i] = cellY(i / 4);
         }
 
-        // 2) shuffle the card list
-        Collections.shuffle(cards);
+        // 2) shuffle the card list with a recorded seed; the grid itself is not touched yet
+        int[] perm = round.shuffle();
+        List<TopicCard> poolOrder = new ArrayList<>(cards);
+        for (int i = 0; i < perm.length; i++) {
+            cards.set(i, poolOrder.get(perm[i]));
+        }
 
-        // 3) put the cards immediately into the grid in the new order
-        grid.getChildren().clear();
+        // 3) every card stays in its old cell and is translated to its new one (no layout pass needed)
+        AnimationQuality.Level level = quality.level();
+        setBackSmoothing(level == AnimationQuality.Level.FULL);
+        double[] toX = new double[cards.size()];
+        double[] toY = new double[cards.size()];
+        Animation[] animations = new Animation[cards.size()];
+        // 6) commit the new order once the last card landed; the next regular pulse lays the grid out
+        int[] pending = {cards.size()};
+        EventHandler<ActionEvent> landed = e -> {
+            if (--pending[0] > 0) return;
+            commitCardOrder();
+            event.commit();
+        };
         for (int i = 0; i < cards.size(); i++) {
-            grid.add(cards.get(i), i % 4, i / 4);
-        }
+            toX[i] = slotX[i] - slotX[perm[i]];
+            toY[i] = slotY[i] - slotY[perm[i]];
 
-        // 4) force layout so nodes have correct new positions/sizes
-        grid.applyCss();
-        grid.layout();
+            // 4) flip to back (two-phase) and then move to the target cell
+            animations[i] = shuffleAnimation(cards.get(i), level, toX[i], toY[i]);
+            animations[i].setDelay(ms(i * 60)); // slight stagger
+            animations[i].setOnFinished(landed);
+        }
 
-        // 5) compute new scene positions and set initial translate offsets (so they appear at old pos)
-        List<Animation> animations = new ArrayList<>();
-        for (StackPane card : cards) {
-            Point2D old = oldPositions.getOrDefault(card, card.localToScene(0, 0));
-            Point2D now = card.localToScene(0, 0);
-
-            // set offset so card visually stays at old position (but is actually in new grid cell)
-            double offsetX = old.getX() - now.getX();
-            double offsetY = old.getY() - now.getY();
-            card.setTranslateX(offsetX);
-            card.setTranslateY(offsetY);
-
-            // 6) flip to back (two-phase) and then animate translate to (0,0)
-            RotateTransition flip1 = new RotateTransition(Duration.millis(180), card);
-            flip1.setAxis(Rotate.Y_AXIS);
-            flip1.setFromAngle(0);
-            flip1.setToAngle(90);
-
-            RotateTransition flip2 = new RotateTransition(Duration.millis(180), card);
-            flip2.setAxis(Rotate.Y_AXIS);
-            flip2.setFromAngle(90);
-            flip2.setToAngle(180);
-            flip2.setOnFinished(e -> CardFactory.showBack(card));
-
-            TranslateTransition move = new TranslateTransition(Duration.millis(350), card);
-            move.setToX(0);
-            move.setToY(0);
-            move.setInterpolator(Interpolator.EASE_BOTH);
-            // we want move to start after flip2
-            SequentialTransition seq = new SequentialTransition(new ParallelTransition(flip1, new PauseTransition(Duration.millis(0))), flip2, move);
-            seq.setDelay(Duration.millis(cards.indexOf(card) * 60)); // slight stagger
-            animations.add(seq);
-        }
-
-        // 7) play all animations (they are independent). Using a ParallelTransition groups them.
-        ParallelTransition all = new ParallelTransition();
-        all.getChildren().addAll(animations);
-        all.setOnFinished(e -> {
-            // ensure final transforms reset
-            for (StackPane c : cards) {
-                c.setTranslateX(0);
-                c.setTranslateY(0);
-                c.setRotate(0);
+        // 5) play all animations; they are independent, so cards that have not started yet can still be replaced
+        if (animations.length == 0) landed.handle(null);
+        long started = System.nanoTime();
+        for (Animation animation : animations) {
+            animation.play();
+        }
+        publishShuffled();
+        event.cards = cards.size();
+        event.renderer = "nodes";
+        event.quality = level.name();
+        event.setup = System.nanoTime() - setupStart;
+        // measure the first frames; if we are behind, stop smoothing the backs and give the cards that are
+        // still waiting for their stagger delay the animation of the lowered level
+        Round shuffled = round;
+        quality.sample(() -> {
+            setBackSmoothing(false);
+            if (round != shuffled) return; // round replaced while sampling
+            double elapsedMs = (System.nanoTime() - started) / 1_000_000.0;
+            for (int i = 0; i < animations.length; i++) {
+                double delayMs = animations[i].getDelay().toMillis();
+                if (delayMs - elapsedMs < FRAME_MS) continue; // started (or starts with the next frame)
+                animations[i].stop();
+                animations[i] = shuffleAnimation(cards.get(i), quality.level(), toX[i], toY[i]);
+                animations[i].setDelay(Duration.millis(delayMs - elapsedMs));
+                animations[i].setOnFinished(landed);
+                animations[i].play();
             }
-            // final layout to be safe
-            layoutCards();
         });
-        all.play();
+    }
+
+    /** New round state for {@code subject}, cards face up in pool order. */
+    private void startRound(String subject) {
+        round = new Round(subject, subjectTopics.getOrDefault(subject, Collections.emptyList()));
+        if (events.hasSubscribers()) {
+            events.publish(new RoundEvent.SubjectSelected(Instant.now(), board, subject, round.size()));
+        }
+    }
+
+    private void publishShuffled() {
+        if (!events.hasSubscribers()) return;
+        events.publish(new RoundEvent.Shuffled(Instant.now(), board, round.subject(), round.size(), round.seed(),
+                round.permutationIndex()));
+    }
+
+    /** Card clicked for reveal number {@code round.picks()} (1 or 2). */
+    private void publishRevealed(int ordinal) {
+        if (!events.hasSubscribers()) return;
+        events.publish(new RoundEvent.CardRevealed(Instant.now(), board, round.subject(), round.name(ordinal),
+                round.slotOf(ordinal), round.picks()));
+    }
+
+    private void publishFinalChoice(int ordinal, boolean accepted) {
+        if (!events.hasSubscribers()) return;
+        events.publish(new RoundEvent.FinalChoice(Instant.now(), board, round.subject(), userName(), round.name(ordinal),
+                round.slotOf(ordinal), accepted));
+    }
+
+    /** Animation / pause time at the configured rate (see ANIMATION_RATE). */
+    private static Duration ms(double millis) {
+        return Duration.millis(millis / ANIMATION_RATE);
     }
 
     /**
-     * Handle card click: reveal card (back -> front). Up to two reveals allowed.
-     * Prevent selecting the same card twice.
+     * Left edge of a grid column, computed from the grid geometry: padding, hgap and the percent column
+     * constraints (same split as GridPane: percentages of the width left after the gaps).
      */
-    private void onCardClicked(MouseEvent event) {
-        StackPane card = (StackPane) event.getSource();
-        // ignore clicks before shuffle or when already two selections exist
-        if (!isShuffled || selected.size() >= 2) return;
+    private double cellX(int column) {
+        Insets insets = grid.getInsets();
+        List<ColumnConstraints> constraints = grid.getColumnConstraints();
+        double contentWidth = grid.getWidth() - insets.getLeft() - insets.getRight() - 3 * grid.getHgap();
+        double x = insets.getLeft();
+        for (int c = 0; c < column; c++) {
+            double percent = c < constraints.size() ? constraints.get(c).getPercentWidth() : -1;
+            x += (percent > 0 ? contentWidth * percent / 100 : contentWidth / 4) + grid.getHgap();
+        }
+        return x;
+    }
 
-        // Prevent the same card being selected twice
-        if (selected.contains(card)) {
-            return;
+    /**
+     * Top edge of a grid row: padding, vgap and the row heights. Cards fill their row, so the height of a
+     * row is the (already laid out) height of any card in it; the rows start where the grid's vertical
+     * alignment puts them.
+     */
+    private double cellY(int row) {
+        Insets insets = grid.getInsets();
+        int rows = (cards.size() + 3) / 4;
+        double rowsHeight = 0;
+        double top = insets.getTop();
+        for (int r = 0; r < rows; r++) {
+            double h = cards.get(r * 4).getHeight();
+            rowsHeight += h + (r > 0 ? grid.getVgap() : 0);
+            if (r < row) top += h + grid.getVgap();
+        }
+        double free = grid.getHeight() - insets.getTop() - insets.getBottom() - rowsHeight;
+        if (free > 0 && grid.getAlignment().getVpos() == VPos.CENTER) {
+            top += free / 2;
+        } else if (free > 0 && grid.getAlignment().getVpos() == VPos.BOTTOM) {
+            top += free;
         }
+        return top;
+    }
 
-        // flip from back (180) to front (0) with two-phase rotation
-        RotateTransition flip1 = new RotateTransition(Duration.millis(200), card);
+    /**
+     * Move every card to the grid cell of its slot and drop the animation transforms. Only the
+     * constraints change, the children stay in the grid, so this is a normal layout on the next pulse.
+     */
+    private void commitCardOrder() {
+        for (int i = 0; i < cards.size(); i++) {
+            TopicCard c = cards.get(i);
+            GridPane.setConstraints(c, i % 4, i / 4);
+            c.setTranslateX(0);
+            c.setTranslateY(0);
+            c.setRotate(0);
+        }
+    }
+
+    /**
+     * Shuffle animation of one card for the given quality level, ending at translate (toX, toY).
+     * Every level takes the same 180 + 180 + 350 ms, so the round time does not depend on the machine.
+     */
+    private Animation shuffleAnimation(TopicCard card, AnimationQuality.Level level, double toX, double toY) {
+        TranslateTransition move = new TranslateTransition(ms(350), card);
+        move.setToX(toX);
+        move.setToY(toY);
+        move.setInterpolator(Interpolator.EASE_BOTH);
+
+        switch (level) {
+            case COMBINED -> {
+                // one phase: back shown immediately, the card just moves
+                card.showBack();
+                move.setDuration(ms(710));
+                return move;
+            }
+            case DISCRETE_FLIP -> {
+                // no rotation frames: the face switches when the flip time is over
+                PauseTransition flip = new PauseTransition(ms(360));
+                flip.setOnFinished(e -> card.showBack());
+                return new SequentialTransition(flip, move);
+            }
+            default -> {
+                RotateTransition flip1 = new RotateTransition(ms(180), card);
+                flip1.setAxis(Rotate.Y_AXIS);
+                flip1.setFromAngle(0);
+                flip1.setToAngle(90);
+
+                RotateTransition flip2 = new RotateTransition(ms(180), card);
+                flip2.setAxis(Rotate.Y_AXIS);
+                flip2.setFromAngle(90);
+                flip2.setToAngle(180);
+                flip2.setOnFinished(e -> card.showBack());
+
+                // we want move to start after flip2
+                return new SequentialTransition(flip1, flip2, move);
+            }
+        }
+    }
+
+    /**
+     * Flip a card from back to front (2 x 200 ms) according to the current quality level;
+     * {@code onFront} runs once the front is visible.
+     */
+    private Animation revealAnimation(TopicCard card, Runnable onFront) {
+        if (quality.level().compareTo(AnimationQuality.Level.DISCRETE_FLIP) >= 0) {
+            PauseTransition flip = new PauseTransition(ms(400));
+            flip.setOnFinished(e -> {
+                card.showFront();
+                onFront.run();
+            });
+            return flip;
+        }
+
+        RotateTransition flip1 = new RotateTransition(ms(200), card);
         flip1.setAxis(Rotate.Y_AXIS);
         flip1.setFromAngle(180);
         flip1.setToAngle(90);
 
-        RotateTransition flip2 = new RotateTransition(Duration.millis(200), card);
+        RotateTransition flip2 = new RotateTransition(ms(200), card);
         flip2.setAxis(Rotate.Y_AXIS);
         flip2.setFromAngle(90);
         flip2.setToAngle(0);
         flip2.setOnFinished(e -> {
-            CardFactory.showFront(card);
-            // add visual selection if not already present (defensive)
-            if (!card.getStyleClass().contains("selected")) {
-                card.getStyleClass().add("selected");
-            }
-            selected.add(card);
+            card.showFront();
+            onFront.run();
+        });
+
+        return new SequentialTransition(flip1, flip2);
+    }
+
+    private void setBackSmoothing(boolean smooth) {
+        for (TopicCard card : cards) {
+            card.back.setSmooth(smooth);
+        }
+    }
+
+    /**
+     * Handle card click: reveal card (back -> front). Up to two reveals allowed.
+     * Prevent selecting the same card twice.
+     */
+    private void onCardClicked(MouseEvent event) {
+        TopicCard card = (TopicCard) event.getSource();
+        // ignore clicks before shuffle
+        if (!round.isShuffled()) return;
+        // handed out elsewhere (shared ledger)
+        if (card.getPseudoClassStates().contains(CardFactory.TAKEN)) return;
+
+        // counted at the click (not when the front is shown), so quick clicks cannot reveal a third card
+        // and the same card is never revealed twice
+        if (!round.pick(card.ordinal)) return;
+        publishRevealed(card.ordinal);
+
+        // flip from back (180) to front (0) with two-phase rotation
+        Animation flip = revealAnimation(card, () -> {
+            // visual selection
+            card.pseudoClassStateChanged(CardFactory.SELECTED, true);
 
-            if (selected.size() == 2) {
+            if (round.picks() == 2 && bothPicksShown()) {
                 // short delay then reveal & immediately dim/deactivate non-selected cards
-                PauseTransition revealPause = new PauseTransition(Duration.millis(250));
+                PauseTransition revealPause = new PauseTransition(ms(250));
                 revealPause.setOnFinished(ev -> revealAndDimNonSelected());
                 revealPause.play();
             }
         });
 
-        new SequentialTransition(flip1, flip2).play();
+        flip.play();
+    }
+
+    private boolean bothPicksShown() {
+        for (int i = 0; i < 2; i++) {
+            TopicCard card = cards.get(round.slotOf(round.pickAt(i)));
+            if (!card.getPseudoClassStates().contains(CardFactory.SELECTED)) return false;
+        }
+        return true;
     }
 
     @FXML
@@ -287,21 +546,25 @@ public class ShuffleController {
         String subject = subjectCombo == null ? null : subjectCombo.getValue();
         if (subject == null) return;
 
-        // clear selection state
-        selected.clear();
-        isShuffled = false;
+        // deck prepared during the last final choice: just swap it in
+        if (canvasDeck == null && swapInNextDeck(subject)) {
+            nameField.clear();
+            return;
+        }
 
-        // clear existing cards/grid
+        // clear existing cards/grid (unbinds the old cards so nothing stays attached to the grid)
+        discardNextDeck();
         grid.getChildren().clear();
-        cards.clear();
+        disposeCards();
 
-        // recreate cards for the same subject (uses your existing topic storage)
-        List<at.htlle.auk.shuffler.model.Topic> topics = subjectTopics.getOrDefault(subject, Collections.emptyList());
-        for (at.htlle.auk.shuffler.model.Topic t : topics) {
-            StackPane card = CardFactory.createCard(t.getName());
-            card.setOnMouseClicked(this::onCardClicked);
-            cards.add(card);
+        // new round state, recreate cards for the same subject
+        startRound(subject);
+        if (canvasDeck != null) {
+            nameField.clear();
+            showCanvasDeck();
+            return;
         }
+        createCards(round, cards);
 
 
         nameField.clear();
@@ -316,34 +579,27 @@ public class ShuffleController {
      * then enable final choice on the two selected cards.
      */
     private void revealAndDimNonSelected() {
-        for (StackPane card : cards) {
-            if (!selected.contains(card)) {
-                // flip animation
-                RotateTransition flip1 = new RotateTransition(Duration.millis(200), card);
-                flip1.setAxis(Rotate.Y_AXIS);
-                flip1.setFromAngle(180);
-                flip1.setToAngle(90);
-
-                RotateTransition flip2 = new RotateTransition(Duration.millis(200), card);
-                flip2.setAxis(Rotate.Y_AXIS);
-                flip2.setFromAngle(90);
-                flip2.setToAngle(0);
-
-                // when the front is shown, mark as not-chosen and deactivate clicks immediately
-                flip2.setOnFinished(e -> {
-                    CardFactory.showFront(card);
-                    if (!card.getStyleClass().contains("not-chosen")) {
-                        card.getStyleClass().add("not-chosen");
-                    }
+        RevealEvent event = new RevealEvent();
+        event.begin();
+        event.cards = cards.size() - round.picks();
+        event.renderer = "nodes";
+        if (event.cards == 0) event.commit(); // two-card deck: nothing to flip
+        int[] pending = {event.cards};
+        for (TopicCard card : cards) {
+            if (!round.isPicked(card.ordinal)) {
+                // flip animation; when the front is shown, mark as not-chosen and deactivate clicks immediately
+                Animation flip = revealAnimation(card, () -> {
+                    card.pseudoClassStateChanged(CardFactory.NOT_CHOSEN, true);
                     card.setOnMouseClicked(null);
+                    if (--pending[0] == 0) event.commit();
                 });
 
-                new SequentialTransition(flip1, flip2).play();
+                flip.play();
             }
         }
 
         // After a short pause allow final choice on the two selected cards
-        PauseTransition allowChoose = new PauseTransition(Duration.millis(200));
+        PauseTransition allowChoose = new PauseTransition(ms(200));
         allowChoose.setOnFinished(e -> enableFinalChoice());
         allowChoose.play();
     }
@@ -354,15 +610,13 @@ public class ShuffleController {
      * Other cards are deactivated.
      */
     private void enableFinalChoice() {
-        for (StackPane card : cards) {
-            if (!selected.contains(card)) {
+        for (TopicCard card : cards) {
+            if (round.isPicked(card.ordinal)) {
+                card.setOnMouseClicked(ev -> finalizeChoice(card));
+            } else {
                 card.setOnMouseClicked(null);
             }
         }
-        for (StackPane sCard : new ArrayList<>(selected)) {
-            final StackPane finalCard = sCard;
-            finalCard.setOnMouseClicked(ev -> finalizeChoice(finalCard));
-        }
     }
 
     /**
@@ -372,102 +626,350 @@ public class ShuffleController {
      * - dim never-selected cards (add 'not-chosen')
      * - log the selection (INFO)
      * - deactivate further clicks
+     * once the shared ledger (if any) accepted the topic, see claim.
      */
-    private void finalizeChoice(StackPane chosen) {
-
-        // extract the two initially selected topic texts (robust)
-        String first = extractLabelText(selected.size() > 0 ? selected.get(0) : null);
-        String second = extractLabelText(selected.size() > 1 ? selected.get(1) : null);
-        String finalText = extractLabelText(chosen);
-        String subject = subjectCombo == null ? "<unknown>" : subjectCombo.getValue();
-
-        // get optional user name (trimmed) — null if empty
-        String user = (nameField != null && !nameField.getText().isBlank())
-                ? nameField.getText().trim()
-                : null;
-
-        // build message, include user only if provided
-        String userPart = (user != null) ? " | user=" + user : "";
-        String message = String.format("Subject=%s%s | selected=[%s, %s] | final=%s",
-                subject,
-                userPart,
-                first == null ? "<unknown>" : first,
-                second == null ? "<unknown>" : second,
-                finalText == null ? "<unknown>" : finalText);
+    private void finalizeChoice(TopicCard chosen) {
+        ChoiceEvent event = new ChoiceEvent();
+        event.begin();
+        event.renderer = "nodes";
+        String subject = round.subject();
+        event.subject = subject;
+
+        // no second click while the ledger decides
+        TopicCard other = cards.get(round.slotOf(round.otherPick(chosen.ordinal)));
+        chosen.setOnMouseClicked(null);
+        other.setOnMouseClicked(null);
+        claim(subject, round.name(chosen.ordinal), accepted -> {
+            if (accepted) {
+                applyFinalChoice(chosen, event);
+                return;
+            }
+            event.commit();
+            publishFinalChoice(chosen.ordinal, false);
+            // handed out by another instance since it was revealed: only the other card is left
+            chosen.pseudoClassStateChanged(CardFactory.TAKEN, true);
+            if (other.getPseudoClassStates().contains(CardFactory.TAKEN)) {
+                allowNewRoundAfterLostClaims();
+            } else {
+                other.setOnMouseClicked(ev -> finalizeChoice(other));
+            }
+        });
+    }
 
-        // log as INFO
-        LOGGER.info(message);
+    /** The claim went through: log, mark and animate the chosen card and lock the round. */
+    private void applyFinalChoice(TopicCard chosen, ChoiceEvent event) {
+        String subject = round.subject();
+        logFinalChoice(chosen.ordinal);
+        publishFinalChoice(chosen.ordinal, true);
 
         // visual marking
-        if (!chosen.getStyleClass().contains("chosen")) {
-            chosen.getStyleClass().add("chosen");
-        }
-        ScaleTransition st = new ScaleTransition(Duration.millis(250), chosen);
+        chosen.pseudoClassStateChanged(CardFactory.CHOSEN, true);
+        ScaleTransition st = new ScaleTransition(ms(250), chosen);
         st.setByX(0.08);
         st.setByY(0.08);
         st.setAutoReverse(true);
         st.setCycleCount(2);
+        // build the next student's deck once the pulse is over (during the new-round lock), so it does not
+        // take frames from the animation
+        st.setOnFinished(e -> prepareNextDeck(subject));
         st.play();
 
-        // deactivate all cards to prevent further interaction
-        for (StackPane c : cards) {
+        // deactivate all cards to prevent further interaction, dim never-selected cards
+        for (TopicCard c : cards) {
             c.setOnMouseClicked(null);
+            if (!round.isPicked(c.ordinal)) {
+                c.pseudoClassStateChanged(CardFactory.NOT_CHOSEN, true);
+            }
         }
 
-        // dim never-selected cards
-        for (StackPane c : cards) {
-            if (!selected.contains(c)) {
-                if (!c.getStyleClass().contains("not-chosen")) {
-                    c.getStyleClass().add("not-chosen");
-                }
+        // keep the other selected card as yellow: do NOT clear its :selected state
+        // The chosen card additionally has :chosen; both will remain visible.
+        blockNewRound();
+        event.accepted = true;
+        event.commit();
+    }
+
+    /**
+     * Build the next round's deck after the final choice: cards created, bound to the shared size bindings, font applied
+     * (same deck and card size as this round, so the fit is a cache hit), CSS/skins created and laid out.
+     * The cards wait in the grid itself, hidden and unmanaged (the grid's layout ignores them): any move to another
+     * parent or scene re-matches CSS for the whole card, while hiding/showing and (un)managing does not.
+     * "Neustart" then only swaps them in (see onNewRound).
+     */
+    private void prepareNextDeck(String subject) {
+        discardNextDeck();
+        if (cardWidthBinding == null || fittedFontSize <= 0) return; // grid never measured: build on demand
+
+        createCards(new Round(subject, subjectTopics.getOrDefault(subject, Collections.emptyList())), nextCards);
+        List<CardLabel> labels = new ArrayList<>(nextCards.size());
+        for (int i = 0; i < nextCards.size(); i++) {
+            TopicCard card = nextCards.get(i);
+            bindCard(card);
+            labels.add(card.label);
+            card.setVisible(false);
+            card.setManaged(false);
+            GridPane.setConstraints(card, i % 4, i / 4);
+        }
+        applyFont(labels, fittedFontSize);
+        nextSubject = subject;
+        nextFontSize = fittedFontSize;
+
+        grid.getChildren().addAll(nextCards);
+        for (TopicCard card : nextCards) {
+            card.applyCss();
+            card.resize(cardWidthBinding.get(), cardHeightBinding.get());
+            card.layout();
+        }
+    }
+
+    /** Drop a prepared deck that will not be used (subject changed, or a new one is prepared). */
+    private void discardNextDeck() {
+        if (nextCards.isEmpty()) return;
+        grid.getChildren().removeAll(nextCards);
+        for (TopicCard card : nextCards) {
+            card.dispose();
+        }
+        nextCards.clear();
+        nextSubject = null;
+    }
+
+    /**
+     * Show the prepared deck in place of the current one. Returns false if there is none for this subject.
+     */
+    private boolean swapInNextDeck(String subject) {
+        if (nextCards.isEmpty() || !subject.equals(nextSubject)) return false;
+
+        grid.getChildren().removeAll(cards);
+        disposeCards();
+        startRound(subject);
+        cards.addAll(nextCards);
+        nextCards.clear();
+        nextSubject = null;
+        for (TopicCard card : cards) {
+            card.setManaged(true);
+            card.setVisible(true);
+        }
+        // window resized since the deck was prepared: fit again (normally a cache hit)
+        if (nextFontSize != fittedFontSize) scheduleAdjustLabelsFontSize();
+        applyLedger();
+        return true;
+    }
+
+    /**
+     * Write the audit line for the final choice (INFO): subject, optional user, both revealed topics,
+     * final topic plus seed, permutation index and slots for replay. Ordinals are mapped to names only here.
+     * The deck version is archived with it (once per version, on the archive's thread), so the record stays
+     * replayable after pool edits.
+     */
+    private void logFinalChoice(int finalOrdinal) {
+        DeckArchive.configured().storeAsync(round.subject(), round.topics());
+        // log as INFO (user only if provided)
+        LOGGER.info(round.record(userName(), finalOrdinal).format());
+    }
+
+    /** Optional user name (trimmed), null if empty. */
+    private String userName() {
+        return (nameField != null && !nameField.getText().isBlank())
+                ? nameField.getText().trim()
+                : null;
+    }
+
+    /**
+     * Record the final choice in the shared ledger (if configured) and pass on whether it was accepted:
+     * false if another instance took the topic. The file lock and write happen on the ledger's writer thread,
+     * {@code then} runs on the FX thread (right away without a ledger). Dropped if the round was replaced
+     * in the meantime. If the ledger cannot be written the draw is allowed: the exam must not stop because
+     * of a network drive.
+     */
+    private void claim(String subject, String topic, Consumer<Boolean> then) {
+        if (ledger == null) {
+            then.accept(true);
+            return;
+        }
+        Round claimed = round;
+        ledger.claimAsync(subject, topic).whenComplete((accepted, error) -> Platform.runLater(() -> {
+            boolean ok = true;
+            if (error != null) {
+                LOGGER.error("Shared draw ledger not writable, draw of {} / {} not recorded there", subject, topic, error);
+            } else if (!accepted) {
+                LOGGER.warn("Topic already handed out in this session: {} / {}", subject, topic);
+                ok = false;
+            }
+            if (round != claimed) {
+                LOGGER.warn("Round replaced before the final choice {} / {} was confirmed", subject, topic);
+                return;
+            }
+            then.accept(ok);
+        }));
+    }
+
+    private void allowNewRoundAfterLostClaims() {
+        LOGGER.warn("Both revealed topics were handed out elsewhere, round has to be repeated");
+        if (newRoundButton != null) newRoundButton.setDisable(false);
+    }
+
+    /**
+     * Mark the cards whose topic another instance (or board) already handed out in this session.
+     * Cards revealed in this round are left alone; for them the final choice decides.
+     */
+    private void applyLedger() {
+        if (ledger == null || round == null) return;
+        Set<String> taken = ledger.taken(round.subject());
+        if (canvasDeck != null) {
+            for (int slot = 0; slot < canvasDeck.size(); slot++) {
+                int ordinal = round.ordinalAt(slot);
+                if (round.isPicked(ordinal) || !taken.contains(round.name(ordinal))) continue;
+                canvasDeck.setClickable(slot, false);
+                canvasDeck.setState(slot, CanvasDeck.State.NOT_CHOSEN);
             }
+            return;
         }
+        for (TopicCard card : cards) {
+            if (round.isPicked(card.ordinal)) continue;
+            card.pseudoClassStateChanged(CardFactory.TAKEN, taken.contains(round.name(card.ordinal)));
+        }
+    }
 
-        // keep the other selected card as yellow: do NOT remove "selected" class
-        // The chosen card already has "chosen" added; both will remain visible.
-        // ensure button disabled immediately after finalization
+    /** Disable "Neustart" right after a final choice and re-enable it after 5 seconds. */
+    private void blockNewRound() {
         if (newRoundButton != null) {
             newRoundButton.setDisable(true);
 
             // re-enable after 5 seconds
-            PauseTransition pt = new PauseTransition(Duration.seconds(5));
+            PauseTransition pt = new PauseTransition(ms(5000));
             pt.setOnFinished(ev -> {
                 if (newRoundButton != null) newRoundButton.setDisable(false);
             });
             pt.play();
         }
+    }
+
+    /* ----------------------------------------------------------------------
+       Canvas renderer: same round flow as the node cards, addressed by slot.
+       ---------------------------------------------------------------------- */
 
+    private void showCanvasDeck() {
+        List<String> names = new ArrayList<>(round.size());
+        for (int ordinal = 0; ordinal < round.size(); ordinal++) {
+            names.add(round.name(ordinal));
+        }
+        canvasDeck.setTopics(names);
+        grid.getChildren().setAll(canvasDeck);
+        GridPane.setConstraints(canvasDeck, 0, 0, 4, 2);
+        applyLedger();
     }
 
-    /**
-     * Robust extraction of the label text shown on a card.
-     * First checks the "frontLabel" property, then searches children for a Label.
-     */
-    private String extractLabelText(StackPane card) {
-        if (card == null) return "<unknown>";
+    private void onCanvasCardClicked(int slot) {
+        if (!round.isShuffled()) return;
+        if (round.picks() < 2 && canvasDeck.stateAt(slot) == CanvasDeck.State.NOT_CHOSEN) return; // taken
+
+        // final choice: only the two revealed cards are clickable at that point
+        if (round.picks() == 2) {
+            finalizeCanvasChoice(slot);
+            return;
+        }
+
+        if (!round.pick(round.ordinalAt(slot))) return;
+        publishRevealed(round.ordinalAt(slot));
+        canvasDeck.setClickable(slot, false);
+        if (round.picks() == 2) canvasDeck.setAllClickable(false);
+
+        canvasDeck.reveal(slot, () -> {
+            canvasDeck.setState(slot, CanvasDeck.State.SELECTED);
+            boolean bothShown = round.picks() == 2
+                    && canvasDeck.stateAt(round.slotOf(round.pickAt(0))) == CanvasDeck.State.SELECTED
+                    && canvasDeck.stateAt(round.slotOf(round.pickAt(1))) == CanvasDeck.State.SELECTED;
+            if (bothShown) {
+                PauseTransition revealPause = new PauseTransition(ms(250));
+                revealPause.setOnFinished(ev -> revealAndDimCanvas());
+                revealPause.play();
+            }
+        });
+    }
 
-        Object o = card.getProperties().get("frontLabel");
-        if (o instanceof Label) {
-            String txt = ((Label) o).getText();
-            return txt == null || txt.isBlank() ? "<unknown>" : txt;
+    private void revealAndDimCanvas() {
+        RevealEvent event = new RevealEvent();
+        event.begin();
+        event.cards = canvasDeck.size() - round.picks();
+        event.renderer = "canvas";
+        if (event.cards == 0) event.commit(); // two-card deck: nothing to flip
+        int[] pending = {event.cards};
+        for (int slot = 0; slot < canvasDeck.size(); slot++) {
+            if (round.isPicked(round.ordinalAt(slot))) continue;
+            int s = slot;
+            canvasDeck.reveal(s, () -> {
+                canvasDeck.setState(s, CanvasDeck.State.NOT_CHOSEN);
+                if (--pending[0] == 0) event.commit();
+            });
         }
 
-        // fallback: search direct children and nested panes
-        for (Node child : card.getChildren()) {
-            if (child instanceof Label) {
-                String txt = ((Label) child).getText();
-                return txt == null || txt.isBlank() ? "<unknown>" : txt;
+        PauseTransition allowChoose = new PauseTransition(ms(200));
+        allowChoose.setOnFinished(e -> {
+            canvasDeck.setClickable(round.slotOf(round.pickAt(0)), true);
+            canvasDeck.setClickable(round.slotOf(round.pickAt(1)), true);
+        });
+        allowChoose.play();
+    }
+
+    private void finalizeCanvasChoice(int slot) {
+        ChoiceEvent event = new ChoiceEvent();
+        event.begin();
+        event.renderer = "canvas";
+        int ordinal = round.ordinalAt(slot);
+        String subject = round.subject();
+        event.subject = subject;
+        // no second click while the ledger decides
+        int other = round.slotOf(round.otherPick(ordinal));
+        canvasDeck.setAllClickable(false);
+        claim(subject, round.name(ordinal), accepted -> {
+            if (accepted) {
+                applyCanvasFinalChoice(slot, event);
+                return;
             }
-            if (child instanceof Pane) {
-                for (Node inner : ((Pane) child).getChildren()) {
-                    if (inner instanceof Label) {
-                        String txt = ((Label) inner).getText();
-                        return txt == null || txt.isBlank() ? "<unknown>" : txt;
-                    }
-                }
+            event.commit();
+            publishFinalChoice(ordinal, false);
+            canvasDeck.setState(slot, CanvasDeck.State.NOT_CHOSEN);
+            if (canvasDeck.stateAt(other) != CanvasDeck.State.SELECTED) {
+                allowNewRoundAfterLostClaims();
+            } else {
+                canvasDeck.setClickable(other, true);
             }
+        });
+    }
+
+    /** Canvas counterpart of applyFinalChoice. */
+    private void applyCanvasFinalChoice(int slot, ChoiceEvent event) {
+        int ordinal = round.ordinalAt(slot);
+        logFinalChoice(ordinal);
+        publishFinalChoice(ordinal, true);
+
+        canvasDeck.setAllClickable(false);
+        canvasDeck.setState(slot, CanvasDeck.State.CHOSEN);
+        canvasDeck.pulse(slot);
+        blockNewRound();
+        event.accepted = true;
+        event.commit();
+    }
+
+    /** One card per topic of the round, in pool order. */
+    private void createCards(Round round, List<TopicCard> target) {
+        for (int ordinal = 0; ordinal < round.size(); ordinal++) {
+            TopicCard card = CardFactory.createCard(ordinal, round.name(ordinal));
+            card.setOnMouseClicked(this::onCardClicked);
+            target.add(card);
+        }
+    }
+
+    /**
+     * Unbind and forget all current cards before they are replaced.
+     * Every binding a card holds is released here (see TopicCard.dispose), so discarded cards
+     * leave no listeners behind on the grid or the shared size bindings.
+     */
+    private void disposeCards() {
+        for (TopicCard card : cards) {
+            card.dispose();
         }
-        return "<unknown>";
+        cards.clear();
     }
 
     /**
@@ -478,9 +980,17 @@ public class ShuffleController {
     private void applyResponsiveBindings() {
         // If scene not ready yet, register once and retry later
         if (grid.getScene() == null) {
-            grid.sceneProperty().addListener((obs, oldS, newS) -> {
-                if (newS != null) {
-                    Platform.runLater(this::applyResponsiveBindings);
+            if (bindingRetryOnScene) return;
+            bindingRetryOnScene = true;
+            grid.sceneProperty().addListener(new ChangeListener<>() {
+                @Override
+                public void changed(javafx.beans.value.ObservableValue<? extends javafx.scene.Scene> obs,
+                                    javafx.scene.Scene oldS, javafx.scene.Scene newS) {
+                    if (newS != null) {
+                        grid.sceneProperty().removeListener(this);
+                        bindingRetryOnScene = false;
+                        Platform.runLater(() -> applyResponsiveBindings());
+                    }
                 }
             });
             return;
@@ -500,70 +1010,30 @@ public class ShuffleController {
             return;
         }
 
-        // compute bindings (based on current grid size)
+        // compute bindings (based on current grid size) once; all cards share them
         final int columns = 4;
         final int rows = 2;
-        double hgap = grid.getHgap();
-        double vgap = grid.getVgap();
-
-        DoubleBinding cardWidthBinding = Bindings.createDoubleBinding(() -> {
-            double totalW = grid.getWidth();
-            double totalGaps = (columns - 1) * hgap;
-            double usable = Math.max(0, totalW - totalGaps - 10);
-            double w = usable / columns;
-            return Math.max(120.0, Math.min(480.0, w)); // clamp
-        }, grid.widthProperty());
-
-        DoubleBinding cardHeightBinding = Bindings.createDoubleBinding(() -> {
-            double totalH = grid.getHeight();
-            double totalGaps = (rows - 1) * vgap;
-            double usable = Math.max(0, totalH - totalGaps - 10);
-            double h = usable / rows;
-            return Math.max(80.0, Math.min(360.0, h)); // clamp
-        }, grid.heightProperty());
+        if (cardWidthBinding == null) {
+            cardWidthBinding = Bindings.createDoubleBinding(() -> {
+                double totalW = grid.getWidth();
+                double totalGaps = (columns - 1) * grid.getHgap();
+                double usable = Math.max(0, totalW - totalGaps - 10);
+                double w = usable / columns;
+                return Math.max(120.0, Math.min(480.0, w)); // clamp
+            }, grid.widthProperty(), grid.hgapProperty());
+
+            cardHeightBinding = Bindings.createDoubleBinding(() -> {
+                double totalH = grid.getHeight();
+                double totalGaps = (rows - 1) * grid.getVgap();
+                double usable = Math.max(0, totalH - totalGaps - 10);
+                double h = usable / rows;
+                return Math.max(80.0, Math.min(360.0, h)); // clamp
+            }, grid.heightProperty(), grid.vgapProperty());
+        }
 
         // Apply bindings to any cards that haven't been bound yet
-        for (StackPane card : cards) {
-            Object applied = card.getProperties().get("responsiveApplied");
-            if (Boolean.TRUE.equals(applied)) continue;
-
-            // defensive min/max
-            card.setMinSize(80, 60);
-            card.setMaxSize(Double.MAX_VALUE, Double.MAX_VALUE);
-
-            card.prefWidthProperty().bind(cardWidthBinding);
-            card.prefHeightProperty().bind(cardHeightBinding);
-
-            Object frontObj = card.getProperties().get("front");
-            Object backObj = card.getProperties().get("back");
-            Object labelObj = card.getProperties().get("frontLabel");
-
-            if (frontObj instanceof StackPane) {
-                StackPane front = (StackPane) frontObj;
-                front.prefWidthProperty().bind(card.widthProperty());
-                front.prefHeightProperty().bind(card.heightProperty());
-                front.setMinSize(javafx.scene.layout.Region.USE_COMPUTED_SIZE,
-                        javafx.scene.layout.Region.USE_COMPUTED_SIZE);
-            }
-            if (backObj instanceof javafx.scene.image.ImageView) {
-                javafx.scene.image.ImageView iv = (javafx.scene.image.ImageView) backObj;
-                iv.fitWidthProperty().bind(card.widthProperty());
-                iv.fitHeightProperty().bind(card.heightProperty());
-                iv.setPreserveRatio(true);
-            }
-            if (labelObj instanceof Label) {
-                Label lbl = (Label) labelObj;
-                lbl.setWrapText(true);
-                lbl.maxWidthProperty().bind(card.widthProperty().multiply(0.9));
-
-//                lbl.maxWidthProperty().bind(card.widthProperty().multiply(0.9));
-//                lbl.styleProperty().bind(Bindings.createStringBinding(
-//                        () -> String.format("-fx-font-size: %.0fpx;", Math.max(12.0, cardWidthBinding.get() * 0.12)),
-//                        cardWidthBinding
-//                ));
-            }
-
-            card.getProperties().put("responsiveApplied", Boolean.TRUE);
+        for (TopicCard card : cards) {
+            bindCard(card);
         }
 
         // Force an extra layout pass to stabilize sizes immediately
@@ -573,15 +1043,46 @@ public class ShuffleController {
         });
     }
 
+    /** Bind one card to the shared card size bindings (once per card). */
+    private void bindCard(TopicCard card) {
+        if (card.bound) return;
+
+        // defensive min/max
+        card.setMinSize(80, 60);
+        card.setMaxSize(Double.MAX_VALUE, Double.MAX_VALUE);
+
+        card.prefWidthProperty().bind(cardWidthBinding);
+        card.prefHeightProperty().bind(cardHeightBinding);
+
+        card.front.prefWidthProperty().bind(card.widthProperty());
+        card.front.prefHeightProperty().bind(card.heightProperty());
+        card.front.setMinSize(javafx.scene.layout.Region.USE_COMPUTED_SIZE,
+                javafx.scene.layout.Region.USE_COMPUTED_SIZE);
+
+        card.back.fitWidthProperty().bind(card.widthProperty());
+        card.back.fitHeightProperty().bind(card.heightProperty());
+        card.back.setPreserveRatio(true);
+
+        card.label.setWrapText(true);
+        card.label.maxWidthProperty().bind(card.widthProperty().multiply(0.9));
+
+//                lbl.styleProperty().bind(Bindings.createStringBinding(
+//                        () -> String.format("-fx-font-size: %.0fpx;", Math.max(12.0, cardWidthBinding.get() * 0.12)),
+//                        cardWidthBinding
+//                ));
+
+        card.bound = true;
+    }
+
     // helper used as very conservative fallback if sizes can't be measured
     private void bindWithDefaults() {
         DoubleBinding defaultWidth = Bindings.createDoubleBinding(() -> 240.0);
         DoubleBinding defaultHeight = Bindings.createDoubleBinding(() -> 160.0);
-        for (StackPane card : cards) {
-            if (Boolean.TRUE.equals(card.getProperties().get("responsiveApplied"))) continue;
+        for (TopicCard card : cards) {
+            if (card.bound) continue;
             card.prefWidthProperty().bind(defaultWidth);
             card.prefHeightProperty().bind(defaultHeight);
-            card.getProperties().put("responsiveApplied", Boolean.TRUE);
+            card.bound = true;
         }
     }
 
@@ -599,7 +1100,7 @@ public class ShuffleController {
         if (cards.isEmpty()) return;
 
 // if any card hasn't been measured yet, schedule a safe retry and return
-        for (StackPane card : cards) {
+        for (TopicCard card : cards) {
             if (card.getWidth() <= 0 || card.getHeight() <= 0) {
                 scheduleAdjustLabelsFontSize();
                 return;
@@ -612,18 +1113,14 @@ public class ShuffleController {
         double minAvailableWidth = Double.MAX_VALUE;
         double minAvailableHeight = Double.MAX_VALUE;
 
-        List<Label> labels = new ArrayList<>();
-        for (StackPane card : cards) {
-            Object lblObj = card.getProperties().get("frontLabel");
-            if (lblObj instanceof Label) {
-                Label lbl = (Label) lblObj;
-                labels.add(lbl);
-
-                double availW = card.getWidth() * 0.90;   // 90% of card width
-                double availH = card.getHeight() * 0.70;  // 70% of card height (allow some top/bottom padding)
-                minAvailableWidth = Math.min(minAvailableWidth, availW);
-                minAvailableHeight = Math.min(minAvailableHeight, availH);
-            }
+        List<CardLabel> labels = new ArrayList<>(cards.size());
+        for (TopicCard card : cards) {
+            labels.add(card.label);
+
+            double availW = card.getWidth() * 0.90;   // 90% of card width
+            double availH = card.getHeight() * 0.70;  // 70% of card height (allow some top/bottom padding)
+            minAvailableWidth = Math.min(minAvailableWidth, availW);
+            minAvailableHeight = Math.min(minAvailableHeight, availH);
         }
         // defensive fallback if something went wrong with measurements
         if (minAvailableWidth == Double.MAX_VALUE || minAvailableHeight == Double.MAX_VALUE) {
@@ -634,39 +1131,54 @@ public class ShuffleController {
 
         if (labels.isEmpty()) return;
 
-        // determine the longest text among labels (we will check all labels though)
-        // do a binary search on font size between reasonable bounds
-        int lo = 8;     // minimal readable font
-        int hi = 90;   // upper bound (will be clamped by measurements)
-        int best = lo;
-
         // Use the family of the first label (preserve style)
         String family = labels.get(0).getFont() != null ? labels.get(0).getFont().getFamily() : Font.getDefault().getFamily();
 
-        while (lo <= hi) {
-            int mid = (lo + hi) / 2;
-            if (allLabelsFitWithFont(labels, family, mid, minAvailableWidth, minAvailableHeight)) {
-                best = mid;      // mid fits -> try larger
-                lo = mid + 1;
-            } else {
-                hi = mid - 1;    // mid too large -> try smaller
-            }
+        // whole pixels, so boards with the same deck and card size share one cached result
+        final int wrapWidth = (int) Math.floor(minAvailableWidth);
+        final int maxHeight = (int) Math.floor(minAvailableHeight);
+        List<String> texts = new ArrayList<>(labels.size());
+        for (Label lbl : labels) {
+            texts.add(lbl.getText() == null ? "" : lbl.getText());
         }
 
-        final double chosen = best;
-
-        // apply chosen font to all labels (use Platform.runLater to avoid interfering with layout)
-        Platform.runLater(() -> {
-            for (Label lbl : labels) {
-                lbl.setWrapText(true);
-                lbl.setFont(Font.font(family, chosen));
-                // only set inline style if styleProperty is NOT bound (defensive)
-                if (!lbl.styleProperty().isBound()) {
-                    lbl.setStyle(String.format("-fx-font-size: %.0fpx;", chosen));
+        FontFitEvent event = new FontFitEvent();
+        event.begin();
+        final double chosen = FontFitCache.fontSize(family, texts, wrapWidth, maxHeight, () -> {
+            // do a binary search on font size between reasonable bounds
+            int lo = FontFitCache.MIN_SIZE;
+            int hi = FontFitCache.MAX_SIZE;
+            int best = lo;
+            while (lo <= hi) {
+                int mid = (lo + hi) / 2;
+                event.probes++;
+                if (allLabelsFitWithFont(labels, family, mid, wrapWidth, maxHeight)) {
+                    best = mid;      // mid fits -> try larger
+                    lo = mid + 1;
+                } else {
+                    hi = mid - 1;    // mid too large -> try smaller
                 }
             }
+            return best;
         });
+        event.labels = labels.size();
+        event.wrapWidth = wrapWidth;
+        event.maxHeight = maxHeight;
+        event.chosenSize = chosen;
+        event.commit();
 
+        fittedFontSize = chosen;
+
+        // apply chosen font to all labels (use Platform.runLater to avoid interfering with layout)
+        Platform.runLater(() -> applyFont(labels, chosen));
+
+    }
+
+    private static void applyFont(List<CardLabel> labels, double size) {
+        for (CardLabel lbl : labels) {
+            // styleable fit size (see CardLabel): no inline style, only changed labels are touched
+            lbl.setFitSize(size);
+        }
     }
 
     /**
@@ -716,7 +1228,7 @@ public class ShuffleController {
 
 
     /** helper: check if ALL labels fit when rendered with the given font size into given bounds */
-    private boolean allLabelsFitWithFont(List<Label> labels,
+    private boolean allLabelsFitWithFont(List<CardLabel> labels,
                                          String family,
                                          int fontSize,
                                          double wrapWidth,
@@ -744,9 +1256,15 @@ public class ShuffleController {
 
     /* ----------------------------------------------------------------------
        CardFactory: helper to build cards with distinct front (text) and back (image).
-       The factory stores references in the Node properties for easy access.
        ---------------------------------------------------------------------- */
     private static class CardFactory {
+        // card states; pseudo-classes only re-evaluate the selectors that use them (a style class change
+        // re-matches the whole card subtree)
+        static final PseudoClass SELECTED = PseudoClass.getPseudoClass("selected");
+        static final PseudoClass CHOSEN = PseudoClass.getPseudoClass("chosen");
+        static final PseudoClass NOT_CHOSEN = PseudoClass.getPseudoClass("not-chosen");
+        static final PseudoClass TAKEN = PseudoClass.getPseudoClass("taken");
+
         private static final Image backImage;
 
         static {
@@ -757,9 +1275,9 @@ public class ShuffleController {
             backImage = new Image(is);
         }
 
-        static StackPane createCard(String text) {
+        static TopicCard createCard(int ordinal, String text) {
             // front label: wrap text, centered. actual sizing is controlled by responsive bindings.
-            Label frontLabel = new Label(text);
+            CardLabel frontLabel = new CardLabel(text);
             frontLabel.getStyleClass().add("card-front");
             frontLabel.setWrapText(true);
             frontLabel.setMaxWidth(Double.MAX_VALUE); // allow parent / bindings to control width
@@ -777,38 +1295,13 @@ public class ShuffleController {
             backView.getStyleClass().add("card-back");
 
             // stack front over back; visibility toggled by showFront/showBack
-            StackPane card = new StackPane(front, backView);
+            TopicCard card = new TopicCard(ordinal, front, backView, frontLabel);
             card.getStyleClass().add("card");
             frontLabel.maxWidthProperty().bind(card.widthProperty().multiply(0.9));
             // initial state: show front (topic text), hide back (logo)
             front.setVisible(true);
             backView.setVisible(false);
-
-            // store references for later access (showFront/showBack, label extraction, responsive bindings)
-            card.getProperties().put("front", front);
-            card.getProperties().put("back", backView);
-            card.getProperties().put("frontLabel", frontLabel);
-
             return card;
         }
-
-
-        static void showBack(StackPane card) {
-            Object frontObj = card.getProperties().get("front");
-            Object backObj = card.getProperties().get("back");
-            if (frontObj instanceof StackPane && backObj instanceof ImageView) {
-                ((StackPane) frontObj).setVisible(false);
-                ((ImageView) backObj).setVisible(true);
-            }
-        }
-
-        static void showFront(StackPane card) {
-            Object frontObj = card.getProperties().get("front");
-            Object backObj = card.getProperties().get("back");
-            if (frontObj instanceof StackPane && backObj instanceof ImageView) {
-                ((ImageView) backObj).setVisible(false);
-                ((StackPane) frontObj).setVisible(true);
-            }
-        }
     }
 }
@@ -0,0 +1,109 @@
+package at.htlle.auk.shuffler.controller;
+
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.control.Button;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.TextField;
+import javafx.scene.layout.ColumnConstraints;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.RowConstraints;
+import javafx.scene.layout.VBox;
+
+/**
+ * Precompiled form of {@code ShuffleView.fxml}: builds the same node tree in code and wires a new
+ * {@link ShuffleController} without FXMLLoader (no XML parsing, no reflective property/controller injection
+ * on the startup path).
+ *
+ * Keep in sync with ShuffleView.fxml; the FXML stays the reference and the fallback
+ * ({@code -Dshuffler.view=fxml}).
+ */
+public final class ShuffleView {
+
+    private final ComboBox<String> subjectCombo;
+    private final TextField nameField;
+    private final Button shuffleButton;
+    private final Button newRoundButton;
+    private final GridPane grid;
+    private final Parent root;
+
+    private ShuffleView(ComboBox<String> subjectCombo, TextField nameField, Button shuffleButton,
+                        Button newRoundButton, GridPane grid, Parent root) {
+        this.subjectCombo = subjectCombo;
+        this.nameField = nameField;
+        this.shuffleButton = shuffleButton;
+        this.newRoundButton = newRoundButton;
+        this.grid = grid;
+        this.root = root;
+    }
+
+    /** Node tree and a new controller attached to it. */
+    public static Parent build() {
+        return tree().attach();
+    }
+
+    /**
+     * Node tree only, no controller yet. A controller registers itself when attached (ledger listener,
+     * round events, board number), so callers that may still fall back to the FXML build the tree first.
+     */
+    public static ShuffleView tree() {
+        ComboBox<String> subjectCombo = new ComboBox<>();
+        subjectCombo.setId("subjectCombo");
+        subjectCombo.setPrefWidth(420.0);
+        subjectCombo.setStyle("-fx-alignment: CENTER;");
+
+        TextField nameField = new TextField();
+        nameField.setId("nameField");
+        nameField.setPromptText("optional (will be logged if filled)");
+
+        Button shuffleButton = new Button("Karten mischen");
+        Button newRoundButton = new Button("Neustart");
+        newRoundButton.setId("newRoundButton");
+        newRoundButton.setDisable(true);
+
+        GridPane grid = new GridPane();
+        grid.setId("grid");
+        grid.setHgap(12);
+        grid.setVgap(12);
+        grid.setAlignment(Pos.CENTER);
+        grid.setMaxHeight(Double.POSITIVE_INFINITY);
+        for (int c = 0; c < 4; c++) {
+            ColumnConstraints cc = new ColumnConstraints();
+            cc.setPercentWidth(25.0);
+            grid.getColumnConstraints().add(cc);
+        }
+        for (int r = 0; r < 2; r++) {
+            RowConstraints rc = new RowConstraints();
+            rc.setVgrow(Priority.ALWAYS);
+            grid.getRowConstraints().add(rc);
+        }
+        VBox.setVgrow(grid, Priority.ALWAYS);
+
+        VBox root = new VBox(12,
+                row(new Label("Subject:"), subjectCombo),
+                row(new Label("Name:"), nameField),
+                row(shuffleButton, newRoundButton),
+                grid);
+        root.setAlignment(Pos.TOP_CENTER);
+        root.setPadding(new Insets(16));
+
+        return new ShuffleView(subjectCombo, nameField, shuffleButton, newRoundButton, grid, root);
+    }
+
+    /** Wires a new {@link ShuffleController} to this tree; returns the root. */
+    public Parent attach() {
+        new ShuffleController().attach(subjectCombo, nameField, shuffleButton, newRoundButton, grid);
+        return root;
+    }
+
+    private static HBox row(Node... children) {
+        HBox row = new HBox(8, children);
+        row.setAlignment(Pos.CENTER);
+        return row;
+    }
+}
@@ -0,0 +1,54 @@
+package at.htlle.auk.shuffler.controller;
+
+import javafx.scene.image.ImageView;
+import javafx.scene.layout.StackPane;
+
+/**
+ * Card node of the node renderer: front (topic label) stacked over the back image. The card knows its topic
+ * only by ordinal (index in the subject's topic list, see {@link Round}); parts are typed fields instead of
+ * {@code Node.getProperties()} entries.
+ */
+final class TopicCard extends StackPane {
+
+    final int ordinal;
+    final StackPane front;
+    final ImageView back;
+    final CardLabel label;
+
+    // bound to the shared card size bindings (see ShuffleController.bindCard)
+    boolean bound;
+
+    TopicCard(int ordinal, StackPane front, ImageView back, CardLabel label) {
+        super(front, back);
+        this.ordinal = ordinal;
+        this.front = front;
+        this.back = back;
+        this.label = label;
+    }
+
+    void showFront() {
+        back.setVisible(false);
+        front.setVisible(true);
+    }
+
+    void showBack() {
+        front.setVisible(false);
+        back.setVisible(true);
+    }
+
+    /**
+     * Release everything the card is bound to (pref size, front/back/label sizes, click handler)
+     * so a discarded card can be collected and leaves no listeners on shared bindings.
+     */
+    void dispose() {
+        setOnMouseClicked(null);
+        prefWidthProperty().unbind();
+        prefHeightProperty().unbind();
+        front.prefWidthProperty().unbind();
+        front.prefHeightProperty().unbind();
+        back.fitWidthProperty().unbind();
+        back.fitHeightProperty().unbind();
+        label.maxWidthProperty().unbind();
+        bound = false;
+    }
+}
@@ -0,0 +1,123 @@
+package at.htlle.auk.shuffler.csvreader;
+
+import at.htlle.auk.shuffler.model.Topic;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * On-disk cache for parsed pool files.
+ *
+ * Entries are keyed by the SHA-256 of the raw file content, so an unchanged file is never parsed again,
+ * no matter where it lives or how it was renamed. Each entry is a small binary file
+ * ({@code <hash>.pool}) in the cache directory.
+ *
+ * The cache is best effort: unreadable or corrupt entries are treated as a miss and rewritten,
+ * write failures are logged and otherwise ignored.
+ */
+class PoolCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PoolCache.class);
+
+    // bump when the entry layout changes; old entries are then simply ignored
+    private static final int FORMAT_VERSION = 1;
+    private static final String SUFFIX = ".pool";
+
+    private final Path directory;
+
+    PoolCache(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Hex encoded SHA-256 of the given content.
+     */
+    static String hash(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Returns the cached subjects for the given content hash, or {@code null} on a miss.
+     * Any failure reading the entry (I/O, corrupt counts or strings, out of memory) is a miss.
+     */
+    Map<String, List<Topic>> load(String hash) {
+        Path entry = directory.resolve(hash + SUFFIX);
+        if (!Files.isRegularFile(entry)) return null;
+
+        // available() is what is left of the file: counts are checked against it before anything is allocated
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(entry)))) {
+            if (in.readInt() != FORMAT_VERSION) return null;
+
+            int subjects = in.readInt();
+            // per subject at least its name length (2 bytes) and topic count (4 bytes)
+            if (subjects < 0 || subjects > in.available() / 6) return corrupt(entry);
+            Map<String, List<Topic>> result = new LinkedHashMap<>();
+            for (int i = 0; i < subjects; i++) {
+                String key = in.readUTF();
+                int count = in.readInt();
+                // per topic at least its name length (2 bytes)
+                if (count < 0 || count > in.available() / 2) return corrupt(entry);
+                List<Topic> topics = new ArrayList<>(count);
+                for (int j = 0; j < count; j++) {
+                    topics.add(new Topic(in.readUTF()));
+                }
+                result.put(key, topics);
+            }
+            return result;
+        } catch (IOException | RuntimeException | OutOfMemoryError e) {
+            LOGGER.warn("Ignoring unreadable pool cache entry {}: {}", entry, e.toString());
+            return null;
+        }
+    }
+
+    private static Map<String, List<Topic>> corrupt(Path entry) {
+        LOGGER.warn("Ignoring corrupt pool cache entry {}", entry);
+        return null;
+    }
+
+    /**
+     * Stores the parsed subjects under the given content hash.
+     * Writes to a temp file first so concurrent launches never see half-written entries; the temp file is
+     * removed again if the write fails.
+     */
+    void store(String hash, Map<String, List<Topic>> subjects) {
+        Path tmp = null;
+        try {
+            Files.createDirectories(directory);
+            tmp = Files.createTempFile(directory, hash, ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeInt(FORMAT_VERSION);
+                out.writeInt(subjects.size());
+                for (Map.Entry<String, List<Topic>> e : subjects.entrySet()) {
+                    out.writeUTF(e.getKey());
+                    out.writeInt(e.getValue().size());
+                    for (Topic t : e.getValue()) {
+                        out.writeUTF(t.getName());
+                    }
+                }
+            }
+            Files.move(tmp, directory.resolve(hash + SUFFIX),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Could not write pool cache entry {}: {}", hash, e.toString());
+            if (tmp != null) {
+                try {
+                    Files.deleteIfExists(tmp);
+                } catch (IOException ignored) {
+                    // left behind in the cache directory; entries are only read by their final name
+                }
+            }
+        }
+    }
+}
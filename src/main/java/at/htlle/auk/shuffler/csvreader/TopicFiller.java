@@ -1,26 +1,177 @@
 package at.htlle.auk.shuffler.csvreader;
 
 import at.htlle.auk.shuffler.model.Topic;
+import at.htlle.auk.shuffler.jfr.PoolLoadEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Loads the topic pools.
+ *
+ * Sources are the bundled {@code rdp-pools.txt} plus every {@code *.txt} file in the pool directory
+ * (system property {@code shuffler.pools.dir}, default {@code pools}). All sources are read and parsed
+ * concurrently; each parsed result is cached on disk by content hash (system property
+ * {@code shuffler.cache.dir}, default {@code cache}), so unchanged files are not parsed again on later launches.
+ *
+ * A subject key may only be defined once across all sources. Conflicts are collected and reported together.
+ */
 public class TopicFiller {
-    
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TopicFiller.class);
+
+    static final String BUNDLED_POOL = "rdp-pools.txt";
+
+    private static volatile Map<String, List<Topic>> shared;
+
+    /**
+     * The pools loaded once per process and shared read-only between all boards (see kiosk mode).
+     */
+    public static Map<String, List<Topic>> sharedTopics() {
+        Map<String, List<Topic>> result = shared;
+        if (result == null) {
+            synchronized (TopicFiller.class) {
+                result = shared;
+                if (result == null) {
+                    Map<String, List<Topic>> copy = new TreeMap<>();
+                    fillTopics().forEach((k, v) -> copy.put(k, List.copyOf(v)));
+                    result = Collections.unmodifiableMap(copy);
+                    shared = result;
+                }
+            }
+        }
+        return result;
+    }
+
     public static Map<String, List<Topic>> fillTopics() {
+        return fillTopics(Paths.get(System.getProperty("shuffler.pools.dir", "pools")),
+                Paths.get(System.getProperty("shuffler.cache.dir", "cache")));
+    }
+
+    /**
+     * Loads the bundled pool plus all pool files in {@code poolDir} (may be missing) and merges them.
+     * Load time is bounded by the slowest single source, not by the sum of all of them.
+     */
+    public static Map<String, List<Topic>> fillTopics(Path poolDir, Path cacheDir) {
+        long start = System.nanoTime();
+        PoolLoadEvent event = new PoolLoadEvent();
+        event.begin();
+        PoolCache cache = new PoolCache(cacheDir);
+        AtomicLong bytes = new AtomicLong();
+        AtomicInteger cacheHits = new AtomicInteger();
+
+        // bundled default first, then department files in name order (keeps conflict reports stable)
+        List<String> names = new ArrayList<>();
+        names.add(BUNDLED_POOL);
+        List<Path> files = listPoolFiles(poolDir);
+        for (Path f : files) {
+            names.add(f.toString());
+        }
+
+        List<Map<String, List<Topic>>> parsed = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Map<String, List<Topic>>>> futures = new ArrayList<>();
+            futures.add(executor.submit(() -> loadSource(BUNDLED_POOL, readBundled(), cache, bytes, cacheHits)));
+            for (Path f : files) {
+                futures.add(executor.submit(() -> loadSource(f.toString(), readFile(f), cache, bytes, cacheHits)));
+            }
+            for (Future<Map<String, List<Topic>>> future : futures) {
+                parsed.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while loading topic pools", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException re) throw re;
+            throw new IllegalStateException("Could not load topic pools", cause);
+        }
+
+        Map<String, List<Topic>> result = merge(names, parsed);
+        if (event.shouldCommit()) {
+            event.sources = names.size();
+            event.cachedSources = cacheHits.get();
+            event.bytes = bytes.get();
+            event.subjects = result.size();
+            event.topics = result.values().stream().mapToInt(List::size).sum();
+            event.commit();
+        }
+        LOGGER.info("Loaded {} subjects from {} pool source(s) in {} ms",
+                result.size(), names.size(), (System.nanoTime() - start) / 1_000_000);
+        return result;
+    }
+
+    /**
+     * Merges the parsed sources in order. Throws if a subject key is defined in more than one source,
+     * naming every conflicting key and the sources it appears in.
+     */
+    static Map<String, List<Topic>> merge(List<String> sourceNames, List<Map<String, List<Topic>>> sources) {
         Map<String, List<Topic>> result = new TreeMap<>();
-        
-        InputStream inputStream = TopicFiller.class.getClassLoader().getResourceAsStream("rdp-pools.txt");
-        if (inputStream == null) {
-            throw new IllegalArgumentException("Resource not found: rdp-pools.txt");
+        Map<String, String> origin = new HashMap<>();
+        List<String> conflicts = new ArrayList<>();
+
+        for (int i = 0; i < sources.size(); i++) {
+            String source = sourceNames.get(i);
+            for (Map.Entry<String, List<Topic>> e : sources.get(i).entrySet()) {
+                String first = origin.putIfAbsent(e.getKey(), source);
+                if (first != null) {
+                    conflicts.add(e.getKey() + " (" + first + " and " + source + ")");
+                    continue;
+                }
+                result.put(e.getKey(), e.getValue());
+            }
+        }
+
+        if (!conflicts.isEmpty()) {
+            throw new IllegalArgumentException("Duplicate keys found: " + String.join(", ", conflicts));
+        }
+        return result;
+    }
+
+    private static Map<String, List<Topic>> loadSource(String name, byte[] content, PoolCache cache,
+                                                       AtomicLong bytes, AtomicInteger cacheHits) {
+        bytes.addAndGet(content.length);
+        String hash = PoolCache.hash(content);
+        Map<String, List<Topic>> cached = cache.load(hash);
+        if (cached != null) {
+            cacheHits.incrementAndGet();
+            LOGGER.debug("Pool {} unchanged, using cache entry {}", name, hash);
+            return cached;
         }
-        
+
+        Map<String, List<Topic>> parsed = parse(name, content);
+        cache.store(hash, parsed);
+        LOGGER.debug("Parsed pool {} ({} bytes, {} subjects)", name, content.length, parsed.size());
+        return parsed;
+    }
+
+    /**
+     * Parses one pool file: blocks separated by blank lines, first line of a block is the subject key,
+     * the following lines are its topics.
+     */
+    static Map<String, List<Topic>> parse(String sourceName, byte[] content) {
+        Map<String, List<Topic>> result = new LinkedHashMap<>();
+
         try (BufferedReader reader = new BufferedReader(
-                new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+                new InputStreamReader(new ByteArrayInputStream(content), StandardCharsets.UTF_8))) {
             String currentKey = null;
             List<Topic> currentTopics = null;
             boolean expectingKey = true;
@@ -40,7 +191,7 @@ public class TopicFiller {
                     currentKey = trimmedLine;
                     
                     if (result.containsKey(currentKey)) {
-                        throw new IllegalArgumentException("Duplicate key found: " + currentKey);
+                        throw new IllegalArgumentException("Duplicate key found: " + currentKey + " (" + sourceName + ")");
                     }
                             
                     currentTopics = new ArrayList<>();
@@ -53,7 +204,39 @@ public class TopicFiller {
                     
             return result;
         } catch (IOException e) {
-            throw new IllegalStateException("Could not read resource:", e);
+            throw new IllegalStateException("Could not read pool " + sourceName + ":", e);
+        }
+    }
+
+    private static List<Path> listPoolFiles(Path poolDir) {
+        if (!Files.isDirectory(poolDir)) return List.of();
+
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(poolDir, "*.txt")) {
+            for (Path p : stream) {
+                if (Files.isRegularFile(p)) files.add(p);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not list pool directory " + poolDir + ":", e);
+        }
+        files.sort(Comparator.comparing(p -> p.getFileName().toString()));
+        return files;
+    }
+
+    private static byte[] readBundled() throws IOException {
+        try (InputStream inputStream = TopicFiller.class.getClassLoader().getResourceAsStream(BUNDLED_POOL)) {
+            if (inputStream == null) {
+                throw new IllegalArgumentException("Resource not found: " + BUNDLED_POOL);
+            }
+            return inputStream.readAllBytes();
+        }
+    }
+
+    private static byte[] readFile(Path file) {
+        try {
+            return Files.readAllBytes(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read pool " + file, e);
         }
     }
     
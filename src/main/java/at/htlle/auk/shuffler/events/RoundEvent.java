@@ -0,0 +1,40 @@
+package at.htlle.auk.shuffler.events;
+
+import java.math.BigInteger;
+import java.time.Instant;
+
+/**
+ * What happens on a board during a round, as published by the controller (see {@link RoundEvents}).
+ * Events are immutable and carry names, not nodes, so subscribers never touch the UI.
+ */
+public sealed interface RoundEvent {
+
+    Instant time();
+
+    /** Board the event comes from: 1, 2, ... in the order the boards were built (kiosk mode has several). */
+    int board();
+
+    String subject();
+
+    /** A subject was chosen (or the board started); {@code cards} topics are laid out face up. */
+    record SubjectSelected(Instant time, int board, String subject, int cards) implements RoundEvent {
+    }
+
+    /** The deck was shuffled with the recorded seed (same values as in the audit line). */
+    record Shuffled(Instant time, int board, String subject, int cards, long seed, BigInteger permutationIndex)
+            implements RoundEvent {
+    }
+
+    /** The {@code pick}-th (1 or 2) card was clicked and is being revealed. */
+    record CardRevealed(Instant time, int board, String subject, String topic, int slot, int pick)
+            implements RoundEvent {
+    }
+
+    /**
+     * Final click on one of the two revealed cards. {@code accepted} is false if the shared draw ledger
+     * reported the topic as handed out elsewhere; {@code user} is null if no name was entered.
+     */
+    record FinalChoice(Instant time, int board, String subject, String user, String topic, int slot, boolean accepted)
+            implements RoundEvent {
+    }
+}
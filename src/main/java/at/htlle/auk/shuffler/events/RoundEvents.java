@@ -0,0 +1,139 @@
+package at.htlle.auk.shuffler.events;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Process wide stream of {@link RoundEvent}s from all boards, for consumers such as statistics, a journal or an
+ * extra display, without adding their work to the FX thread.
+ *
+ * Every subscriber gets its own {@link SubmissionPublisher}: its own executor (a daemon thread by default), its own
+ * bounded buffer and its own {@link Overflow} policy, so a slow subscriber only ever affects itself. Publishing is
+ * a non-blocking {@code offer} per subscriber; with no subscribers the controller does not even create the event.
+ */
+public final class RoundEvents {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RoundEvents.class);
+
+    private static final RoundEvents SHARED = new RoundEvents();
+
+    /** What happens to an event a subscriber has no buffer space for. Blocking is not offered: events come from the FX thread. */
+    public enum Overflow {
+        /** The new event is dropped for this subscriber (counted and logged); fine for statistics and displays. */
+        DROP,
+        /** The subscriber's stream ends with {@code onError}; for consumers that must not miss events silently. */
+        DISCONNECT
+    }
+
+    private final List<Channel> channels = new CopyOnWriteArrayList<>();
+
+    public static RoundEvents shared() {
+        return SHARED;
+    }
+
+    /** True while any subscriber is still subscribed; channels of subscribers that cancelled are dropped here. */
+    public boolean hasSubscribers() {
+        for (Channel c : channels) {
+            if (!c.cancelled()) return true;
+        }
+        return false;
+    }
+
+    /** Hands the event to every subscriber's buffer; never blocks. */
+    public void publish(RoundEvent event) {
+        for (Channel c : channels) {
+            if (!c.cancelled()) c.offer(event);
+        }
+    }
+
+    /**
+     * Subscribes on an own daemon thread ({@code round-events-<name>}) with a buffer of {@code bufferSize} events
+     * (rounded up to a power of two). Closing the returned handle completes the stream and stops the thread.
+     */
+    public AutoCloseable subscribe(String name, Flow.Subscriber<? super RoundEvent> subscriber, int bufferSize,
+                                   Overflow overflow) {
+        ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "round-events-" + name);
+            t.setDaemon(true);
+            return t;
+        });
+        return add(new Channel(name, executor, executor, bufferSize, overflow), subscriber);
+    }
+
+    /** As above, on a caller supplied executor (not shut down on close). */
+    public AutoCloseable subscribe(String name, Flow.Subscriber<? super RoundEvent> subscriber, Executor executor,
+                                   int bufferSize, Overflow overflow) {
+        return add(new Channel(name, executor, null, bufferSize, overflow), subscriber);
+    }
+
+    private AutoCloseable add(Channel channel, Flow.Subscriber<? super RoundEvent> subscriber) {
+        channel.publisher.subscribe(subscriber);
+        channels.add(channel);
+        return () -> remove(channel, null);
+    }
+
+    /** Closes and drops the channel; false if it was gone already. */
+    private boolean remove(Channel channel, Throwable error) {
+        if (!channels.remove(channel)) return false;
+        if (error == null) {
+            channel.publisher.close();
+        } else {
+            channel.publisher.closeExceptionally(error);
+        }
+        // the executor still delivers onComplete / onError, then ends
+        if (channel.ownedExecutor != null) channel.ownedExecutor.shutdown();
+        return true;
+    }
+
+    private final class Channel {
+        final String name;
+        final SubmissionPublisher<RoundEvent> publisher;
+        final ExecutorService ownedExecutor;
+        final int bufferSize;
+        final Overflow overflow;
+        final AtomicLong dropped = new AtomicLong();
+
+        Channel(String name, Executor executor, ExecutorService ownedExecutor, int bufferSize, Overflow overflow) {
+            this.name = name;
+            this.publisher = new SubmissionPublisher<>(executor, bufferSize);
+            this.ownedExecutor = ownedExecutor;
+            this.bufferSize = publisher.getMaxBufferCapacity();
+            this.overflow = overflow;
+        }
+
+        /** Whether the subscriber cancelled its subscription (e.g. could not start); removes the channel then. */
+        boolean cancelled() {
+            if (publisher.hasSubscribers()) return false;
+            if (remove(this, null)) LOGGER.info("Round event subscriber {} cancelled, removed", name);
+            return true;
+        }
+
+        void offer(RoundEvent event) {
+            // no timeout, no retry: a full buffer is handled by the policy below
+            try {
+                if (publisher.offer(event, null) >= 0) return;
+            } catch (IllegalStateException closed) {
+                return; // unsubscribed from another thread meanwhile
+            }
+
+            if (overflow == Overflow.DISCONNECT) {
+                LOGGER.warn("Round event subscriber {} is {} events behind, disconnected", name, bufferSize);
+                remove(this, new IllegalStateException("Round event buffer of " + bufferSize + " events full"));
+                return;
+            }
+            long n = dropped.incrementAndGet();
+            if (n == 1 || n % 1000 == 0) {
+                LOGGER.warn("Round event subscriber {} is behind, {} event(s) dropped so far", name, n);
+            }
+        }
+    }
+}
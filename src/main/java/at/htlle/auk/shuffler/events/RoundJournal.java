@@ -0,0 +1,107 @@
+package at.htlle.auk.shuffler.events;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Flow;
+
+/**
+ * Subscriber that appends every round event as one tab separated line to a file, on its own thread:
+ * {@code time  type  board  subject  details...}. Enabled with {@code -Dshuffler.journal=<file>}.
+ *
+ * Subscribed with {@link RoundEvents.Overflow#DISCONNECT}: if the disk cannot keep up, the journal stops with
+ * an error in the log instead of getting silent gaps.
+ */
+public final class RoundJournal implements Flow.Subscriber<RoundEvent> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RoundJournal.class);
+
+    private static final int BUFFER = 1024;
+
+    private final Path file;
+    private BufferedWriter out;
+    private Flow.Subscription subscription;
+
+    private RoundJournal(Path file) {
+        this.file = file;
+    }
+
+    public static void startIfConfigured() {
+        String file = System.getProperty("shuffler.journal");
+        if (file == null || file.isBlank()) return;
+        RoundEvents.shared().subscribe("journal", new RoundJournal(Paths.get(file)), BUFFER,
+                RoundEvents.Overflow.DISCONNECT);
+        LOGGER.info("Round journal written to {}", Paths.get(file).toAbsolutePath());
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) Files.createDirectories(parent);
+            out = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                    StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            LOGGER.error("Round journal {} not writable", file, e);
+            subscription.cancel();
+            return;
+        }
+        subscription.request(1);
+    }
+
+    @Override
+    public void onNext(RoundEvent event) {
+        try {
+            out.write(line(event));
+            out.newLine();
+            out.flush();
+        } catch (IOException e) {
+            LOGGER.error("Writing the round journal {} failed, journal stopped", file, e);
+            subscription.cancel();
+            close();
+            return;
+        }
+        subscription.request(1);
+    }
+
+    @Override
+    public void onError(Throwable error) {
+        LOGGER.error("Round journal {} stopped", file, error);
+        close();
+    }
+
+    @Override
+    public void onComplete() {
+        close();
+    }
+
+    static String line(RoundEvent event) {
+        String details = switch (event) {
+            case RoundEvent.SubjectSelected e -> "cards=" + e.cards();
+            case RoundEvent.Shuffled e -> "cards=" + e.cards() + "\tseed=" + e.seed() + "\tperm=" + e.permutationIndex();
+            case RoundEvent.CardRevealed e -> "pick=" + e.pick() + "\tslot=" + e.slot() + "\ttopic=" + e.topic();
+            case RoundEvent.FinalChoice e -> "slot=" + e.slot() + "\ttopic=" + e.topic() + "\taccepted=" + e.accepted()
+                    + (e.user() == null ? "" : "\tuser=" + e.user());
+        };
+        return event.time() + "\t" + event.getClass().getSimpleName() + "\tboard=" + event.board() + "\t" + event.subject()
+                + "\t" + details;
+    }
+
+    private void close() {
+        if (out == null) return;
+        try {
+            out.close();
+        } catch (IOException e) {
+            LOGGER.warn("Closing the round journal {} failed", file, e);
+        }
+        out = null;
+    }
+}
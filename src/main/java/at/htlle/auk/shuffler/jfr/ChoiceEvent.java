@@ -0,0 +1,26 @@
+package at.htlle.auk.shuffler.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** The final choice: shared-ledger claim, audit log line and marking of the cards. */
+@Name("at.htlle.auk.shuffler.Choice")
+@Label("Final Choice")
+@Category("TopicShuffler")
+@Description("Final click on one of the two revealed cards")
+@StackTrace(false)
+public class ChoiceEvent extends jdk.jfr.Event {
+
+    @Label("Subject")
+    public String subject;
+
+    @Label("Renderer")
+    public String renderer;
+
+    @Label("Accepted")
+    @Description("False if the topic was already handed out by another instance (shared ledger)")
+    public boolean accepted;
+}
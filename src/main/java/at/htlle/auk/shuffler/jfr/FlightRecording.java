@@ -0,0 +1,59 @@
+package at.htlle.auk.shuffler.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Duration;
+
+/**
+ * Starts a flight recording with the bundled settings ({@code shuffler.jfc}) if {@code -Dshuffler.jfr=<file.jfr>}
+ * is set. Only the shuffler's phase events and a few cheap JDK events are enabled, so it can stay on all day.
+ *
+ * The recording is written to the file when the app exits; while it runs it can be dumped with
+ * {@code jcmd <pid> JFR.dump name=shuffler filename=now.jfr}. Summarize it with {@link JfrReport}.
+ */
+public final class FlightRecording {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FlightRecording.class);
+
+    static final String SETTINGS = "/at/htlle/auk/shuffler/jfr/shuffler.jfc";
+
+    private FlightRecording() {
+    }
+
+    public static void startIfConfigured() {
+        String file = System.getProperty("shuffler.jfr");
+        if (file == null || file.isBlank()) return;
+
+        try (InputStream in = FlightRecording.class.getResourceAsStream(SETTINGS)) {
+            if (in == null) throw new IOException(SETTINGS + " not found");
+            Configuration settings;
+            try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+                settings = Configuration.create(reader);
+            }
+            Path destination = Paths.get(file);
+            Recording recording = new Recording(settings);
+            recording.setName("shuffler");
+            recording.setToDisk(true);
+            // keeps a day of a kiosk PC that is never closed bounded
+            recording.setMaxAge(Duration.ofHours(24));
+            recording.setDestination(destination);
+            recording.setDumpOnExit(true);
+            recording.start();
+            LOGGER.info("Flight recording started, written to {} on exit", destination.toAbsolutePath());
+        } catch (IOException | ParseException | RuntimeException e) {
+            // diagnostics only: the app runs without it
+            LOGGER.warn("Flight recording not started", e);
+        }
+    }
+}
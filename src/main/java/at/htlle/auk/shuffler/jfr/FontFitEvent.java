@@ -0,0 +1,32 @@
+package at.htlle.auk.shuffler.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** One font fit of a deck (ShuffleController.adjustLabelsFontSize). */
+@Name("at.htlle.auk.shuffler.FontFit")
+@Label("Font Fit")
+@Category("TopicShuffler")
+@Description("Largest font size at which all topics of the deck fit into their cards")
+@StackTrace(false)
+public class FontFitEvent extends jdk.jfr.Event {
+
+    @Label("Labels")
+    public int labels;
+
+    @Label("Probes")
+    @Description("Font sizes measured by the binary search (0 = cache hit)")
+    public int probes;
+
+    @Label("Wrap Width")
+    public int wrapWidth;
+
+    @Label("Max Height")
+    public int maxHeight;
+
+    @Label("Chosen Size")
+    public double chosenSize;
+}
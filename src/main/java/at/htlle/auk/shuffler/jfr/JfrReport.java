@@ -0,0 +1,116 @@
+package at.htlle.auk.shuffler.jfr;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+
+/**
+ * Summary of a recording made with {@code -Dshuffler.jfr=...}: per phase the count and median / p95 / max
+ * duration, the slowest events with their fields (when did it happen, which deck), the font-fit cache hit
+ * ratio, and GC pauses and CPU load over the same time as context.
+ *
+ * Usage: {@code java -cp <app classpath> at.htlle.auk.shuffler.jfr.JfrReport shuffler.jfr [slowest=5]}
+ */
+public final class JfrReport {
+
+    private static final String PREFIX = "at.htlle.auk.shuffler.";
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("HH:mm:ss.SSS")
+            .withZone(ZoneId.systemDefault());
+
+    private JfrReport() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: JfrReport <recording.jfr> [slowest per phase, default 5]");
+            System.exit(2);
+        }
+        Path file = Paths.get(args[0]);
+        int slowest = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        Map<String, List<RecordedEvent>> phases = new TreeMap<>();
+        int fits = 0;
+        int fitHits = 0;
+        int gcs = 0;
+        Duration gcTotal = Duration.ZERO;
+        Duration gcMax = Duration.ZERO;
+        double cpuMax = 0;
+
+        for (RecordedEvent e : RecordingFile.readAllEvents(file)) {
+            String name = e.getEventType().getName();
+            if (name.startsWith(PREFIX)) {
+                phases.computeIfAbsent(name.substring(PREFIX.length()), k -> new ArrayList<>()).add(e);
+                if (name.equals(PREFIX + "FontFit")) {
+                    fits++;
+                    if (e.getInt("probes") == 0) fitHits++;
+                }
+            } else if (name.equals("jdk.GarbageCollection")) {
+                gcs++;
+                Duration pause = e.getDuration("sumOfPauses");
+                gcTotal = gcTotal.plus(pause);
+                if (pause.compareTo(gcMax) > 0) gcMax = pause;
+            } else if (name.equals("jdk.CPULoad")) {
+                cpuMax = Math.max(cpuMax, e.getFloat("machineTotal"));
+            }
+        }
+
+        System.out.println("Recording " + file);
+        System.out.printf("%-10s %6s %10s %10s %10s%n", "phase", "count", "median ms", "p95 ms", "max ms");
+        for (Map.Entry<String, List<RecordedEvent>> phase : phases.entrySet()) {
+            List<RecordedEvent> events = phase.getValue();
+            events.sort(Comparator.comparing(RecordedEvent::getDuration));
+            System.out.printf("%-10s %6d %10.1f %10.1f %10.1f%n", phase.getKey(), events.size(),
+                    millis(percentile(events, 0.50)), millis(percentile(events, 0.95)),
+                    millis(events.get(events.size() - 1).getDuration()));
+        }
+
+        for (Map.Entry<String, List<RecordedEvent>> phase : phases.entrySet()) {
+            List<RecordedEvent> events = phase.getValue();
+            System.out.println();
+            System.out.println("Slowest " + phase.getKey() + ":");
+            for (int i = events.size() - 1; i >= Math.max(0, events.size() - slowest); i--) {
+                RecordedEvent e = events.get(i);
+                System.out.printf("  %s %8.1f ms  %s%n", TIME.format(e.getStartTime()),
+                        millis(e.getDuration()), fields(e));
+            }
+        }
+
+        System.out.println();
+        if (fits > 0) {
+            System.out.printf("Font fit cache hits: %d of %d (%.0f %%)%n", fitHits, fits, 100.0 * fitHits / fits);
+        }
+        System.out.printf("GC: %d collections, pauses %.1f ms total, %.1f ms max%n",
+                gcs, millis(gcTotal), millis(gcMax));
+        System.out.printf("CPU load (machine) max: %.0f %%%n", cpuMax * 100);
+    }
+
+    private static Duration percentile(List<RecordedEvent> sorted, double p) {
+        int index = (int) Math.ceil(p * sorted.size()) - 1;
+        return sorted.get(Math.max(0, index)).getDuration();
+    }
+
+    private static double millis(Duration d) {
+        return d.toNanos() / 1e6;
+    }
+
+    /** The event's own fields (not start time, duration, thread). */
+    private static String fields(RecordedEvent e) {
+        StringJoiner out = new StringJoiner(", ");
+        e.getFields().forEach(f -> {
+            String name = f.getName();
+            if (name.equals("startTime") || name.equals("duration") || name.equals("eventThread")
+                    || name.equals("stackTrace")) return;
+            Object value = e.getValue(name);
+            out.add(name + "=" + (value instanceof Long nanos && name.equals("setup")
+                    ? String.format("%.1fms", nanos / 1e6) : value));
+        });
+        return out.toString();
+    }
+}
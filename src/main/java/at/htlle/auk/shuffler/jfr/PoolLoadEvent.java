@@ -0,0 +1,33 @@
+package at.htlle.auk.shuffler.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** Loading and parsing the topic pools (TopicFiller.fillTopics). */
+@Name("at.htlle.auk.shuffler.PoolLoad")
+@Label("Pool Load")
+@Category("TopicShuffler")
+@Description("Topic pools read, parsed (or taken from the parse cache) and merged")
+@StackTrace(false)
+public class PoolLoadEvent extends jdk.jfr.Event {
+
+    @Label("Sources")
+    public int sources;
+
+    @Label("Sources From Cache")
+    public int cachedSources;
+
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+
+    @Label("Subjects")
+    public int subjects;
+
+    @Label("Topics")
+    public int topics;
+}
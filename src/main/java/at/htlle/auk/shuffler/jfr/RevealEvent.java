@@ -0,0 +1,22 @@
+package at.htlle.auk.shuffler.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** Revealing the cards that were not selected, until the last one shows its front. */
+@Name("at.htlle.auk.shuffler.Reveal")
+@Label("Reveal")
+@Category("TopicShuffler")
+@Description("Flip of all non-selected cards after the second pick, until the last front is shown")
+@StackTrace(false)
+public class RevealEvent extends jdk.jfr.Event {
+
+    @Label("Cards")
+    public int cards;
+
+    @Label("Renderer")
+    public String renderer;
+}
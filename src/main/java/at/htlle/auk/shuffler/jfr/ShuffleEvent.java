@@ -0,0 +1,31 @@
+package at.htlle.auk.shuffler.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/** A shuffle from the button click until the last card has landed (duration = whole animation). */
+@Name("at.htlle.auk.shuffler.Shuffle")
+@Label("Shuffle")
+@Category("TopicShuffler")
+@Description("Shuffle of a deck, from the click until the animation has finished")
+@StackTrace(false)
+public class ShuffleEvent extends jdk.jfr.Event {
+
+    @Label("Cards")
+    public int cards;
+
+    @Label("Renderer")
+    public String renderer;
+
+    @Label("Animation Quality")
+    public String quality;
+
+    @Label("Setup")
+    @Description("Time spent in the click handler before the animation started")
+    @Timespan(Timespan.NANOSECONDS)
+    public long setup;
+}
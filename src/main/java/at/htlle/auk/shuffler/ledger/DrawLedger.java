@@ -0,0 +1,292 @@
+package at.htlle.auk.shuffler.ledger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Draw ledger shared by several shuffler instances (other PCs / rooms) through a common directory,
+ * so a topic is handed out at most once per session. No server: the instances coordinate through two files.
+ *
+ * - {@code draws-<session>.ledger}: one line per final choice ({@code subject \t topic \t host \t time}),
+ *   appended only while holding an exclusive {@link FileLock} on the file
+ * - {@code draws-<session>.counter}: 8 bytes, memory-mapped; incremented after every append
+ *
+ * Every instance polls the mapped counter (a plain memory read, default every 200 ms) and only reads the new
+ * part of the ledger when it changed. Mapped pages are not kept coherent by every network file system, so every
+ * few polls the ledger size is checked as well.
+ *
+ * Enabled with {@code -Dshuffler.ledger.dir=<shared directory>}; the session defaults to the current date
+ * ({@code -Dshuffler.ledger.session=...}), poll interval {@code -Dshuffler.ledger.pollMs=...}.
+ */
+public final class DrawLedger implements Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DrawLedger.class);
+
+    // check the ledger size every N polls (network shares may not update mapped pages)
+    private static final int SIZE_CHECK_EVERY = 5;
+
+    private static volatile DrawLedger shared;
+    private static volatile boolean sharedResolved;
+
+    private final Path ledgerFile;
+    private final FileChannel ledger;
+    private final FileChannel counterChannel;
+    private final MappedByteBuffer counter;
+    private final String host;
+    private final ScheduledExecutorService poller;
+    // claims wait for the file lock and force the write; kept off the callers' (FX) threads
+    private final ExecutorService writer;
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+
+    // serializes the appends of this process (file locks are per process); never taken while holding the monitor
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    // subject -> taken topics; guarded by this
+    private final Map<String, Set<String>> taken = new HashMap<>();
+    private long readOffset = 0;
+    private long seenCounter = -1;
+    private int polls = 0;
+
+    /**
+     * Opens (or creates) the ledger of {@code session} in {@code dir} and starts polling every {@code pollMs}.
+     */
+    public DrawLedger(Path dir, String session, long pollMs) throws IOException {
+        Files.createDirectories(dir);
+        ledgerFile = dir.resolve("draws-" + session + ".ledger");
+        ledger = FileChannel.open(ledgerFile, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        counterChannel = FileChannel.open(dir.resolve("draws-" + session + ".counter"), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        counter = counterChannel.map(FileChannel.MapMode.READ_WRITE, 0, Long.BYTES);
+        host = hostName();
+
+        synchronized (this) {
+            readNewEntries();
+        }
+        poller = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "ledger-poll");
+            t.setDaemon(true);
+            return t;
+        });
+        poller.scheduleWithFixedDelay(this::poll, pollMs, pollMs, TimeUnit.MILLISECONDS);
+        writer = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "ledger-claim");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Process wide ledger as configured by {@code shuffler.ledger.*}, or null if not enabled (or not usable).
+     * All boards of a process share it; file locks are held per process, not per thread.
+     */
+    public static DrawLedger shared() {
+        if (!sharedResolved) {
+            synchronized (DrawLedger.class) {
+                if (!sharedResolved) {
+                    shared = openConfigured();
+                    sharedResolved = true;
+                }
+            }
+        }
+        return shared;
+    }
+
+    private static DrawLedger openConfigured() {
+        String dir = System.getProperty("shuffler.ledger.dir");
+        if (dir == null || dir.isBlank()) return null;
+        String session = System.getProperty("shuffler.ledger.session", LocalDate.now().toString());
+        long pollMs = Long.getLong("shuffler.ledger.pollMs", 200);
+        try {
+            DrawLedger ledger = new DrawLedger(Paths.get(dir), session, pollMs);
+            LOGGER.info("Shared draw ledger {} (session {})", ledger.ledgerFile, session);
+            return ledger;
+        } catch (IOException e) {
+            // the shuffler still works, only without cross-instance coordination
+            LOGGER.error("Shared draw ledger in {} not usable, drawing without it", dir, e);
+            return null;
+        }
+    }
+
+    /**
+     * Runs {@code listener} (on the poll thread) whenever other instances added draws.
+     */
+    public void addListener(Runnable listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Runnable listener) {
+        listeners.remove(listener);
+    }
+
+    /** Topics of {@code subject} already handed out in this session (by any instance). */
+    public synchronized Set<String> taken(String subject) {
+        Set<String> topics = taken.get(subject);
+        return topics == null ? Set.of() : Set.copyOf(topics);
+    }
+
+    public synchronized boolean isTaken(String subject, String topic) {
+        Set<String> topics = taken.get(subject);
+        return topics != null && topics.contains(topic);
+    }
+
+    /**
+     * Records {@code topic} as handed out. Returns false (and records nothing) if any instance took it first.
+     */
+    public boolean claim(String subject, String topic) throws IOException {
+        if (!append(subject, topic)) return false;
+        // other boards of this process
+        for (Runnable l : listeners) {
+            l.run();
+        }
+        return true;
+    }
+
+    /**
+     * {@link #claim} on the ledger's writer thread, in call order. Completes exceptionally with the
+     * IOException if the ledger cannot be written.
+     */
+    public CompletableFuture<Boolean> claimAsync(String subject, String topic) {
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        writer.execute(() -> {
+            try {
+                result.complete(claim(subject, topic));
+            } catch (IOException | RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+    // the lock is only held for the block, its variable is not used ("try" lint)
+    @SuppressWarnings("try")
+    private boolean append(String subject, String topic) throws IOException {
+        // one append at a time per process (file locks are per process); the monitor is not held while
+        // waiting for the file lock or forcing, so taken() / isTaken() on the FX thread never wait on I/O
+        writeLock.lock();
+        try (FileLock lock = ledger.lock()) {
+            // entries written by others up to now, read under the file lock, so the check below is final
+            synchronized (this) {
+                readNewEntries();
+                if (isTaken(subject, topic)) return false;
+            }
+
+            String line = subject + '\t' + topic + '\t' + host + '\t' + Instant.now() + '\n';
+            ByteBuffer buf = ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8));
+            long pos = ledger.size();
+            while (buf.hasRemaining()) {
+                pos += ledger.write(buf, pos);
+            }
+            ledger.force(false);
+            long count = counter.getLong(0) + 1;
+            counter.putLong(0, count);
+            counter.force();
+
+            synchronized (this) {
+                readNewEntries();
+                seenCounter = count;
+            }
+            return true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void poll() {
+        try {
+            boolean changed;
+            synchronized (this) {
+                long current = counter.getLong(0);
+                boolean sizeCheck = ++polls % SIZE_CHECK_EVERY == 0;
+                if (current == seenCounter && !(sizeCheck && ledger.size() > readOffset)) return;
+                seenCounter = current;
+                changed = readNewEntries();
+            }
+            if (changed) {
+                for (Runnable l : listeners) {
+                    l.run();
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Polling the shared draw ledger failed", e);
+        }
+    }
+
+    /**
+     * Reads complete lines appended since the last read. Returns true if there were any.
+     */
+    private boolean readNewEntries() throws IOException {
+        long size = ledger.size();
+        if (size <= readOffset) return false;
+
+        ByteBuffer buf = ByteBuffer.allocate((int) (size - readOffset));
+        long pos = readOffset;
+        while (buf.hasRemaining() && ledger.read(buf, pos + buf.position()) > 0) {
+            // read until full
+        }
+        byte[] bytes = Arrays.copyOf(buf.array(), buf.position());
+
+        // a line still being written (no lock while polling) is left for the next read
+        int end = 0;
+        boolean added = false;
+        for (int i = 0; i < bytes.length; i++) {
+            if (bytes[i] != '\n') continue;
+            String line = new String(bytes, end, i - end, StandardCharsets.UTF_8);
+            end = i + 1;
+            String[] fields = line.split("\t", -1);
+            if (fields.length < 2) continue;
+            added |= taken.computeIfAbsent(fields[0], k -> new HashSet<>()).add(fields[1]);
+        }
+        readOffset += end;
+        return added;
+    }
+
+    private static String hostName() {
+        // environment first: a reverse lookup can take seconds on badly configured school networks
+        String env = System.getenv("COMPUTERNAME");
+        if (env == null) env = System.getenv("HOSTNAME");
+        if (env != null && !env.isBlank()) return env;
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (IOException e) {
+            return "unknown";
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        poller.shutdownNow();
+        writer.shutdown();
+        try {
+            // pending claims are written before the channels close
+            writer.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        ledger.close();
+        counterChannel.close();
+    }
+}
@@ -2,11 +2,13 @@ module at.htlle.auk.shuffler {
     requires javafx.controls;
     requires javafx.fxml;
     requires org.slf4j;
-    requires java.desktop;
+    requires jdk.jfr;
 
 
     opens at.htlle.auk.shuffler to javafx.fxml;
     exports at.htlle.auk.shuffler;
     exports at.htlle.auk.shuffler.controller;
+    exports at.htlle.auk.shuffler.jfr;
+    exports at.htlle.auk.shuffler.events;
     opens at.htlle.auk.shuffler.controller to javafx.fxml;
 }
\ No newline at end of file
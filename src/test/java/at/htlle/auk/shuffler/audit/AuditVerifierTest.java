@@ -0,0 +1,124 @@
+package at.htlle.auk.shuffler.audit;
+
+import at.htlle.auk.shuffler.audit.AuditVerifier.Status;
+import at.htlle.auk.shuffler.model.Topic;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AuditVerifierTest {
+
+    private static final long SEED = 20240603L;
+
+    private final List<Topic> deck = topics("Thema", 8);
+    private final AuditVerifier verifier = new AuditVerifier(Map.of("POS", deck));
+
+    @Test
+    void genuineRecordIsOk() {
+        assertEquals(Status.OK, verifier.verify(draw(deck, SEED, 2, 5)));
+    }
+
+    @Test
+    void tamperedSeedIsFlagged() {
+        DrawRecord genuine = draw(deck, SEED, 2, 5);
+
+        assertEquals(Status.PERMUTATION_MISMATCH, verifier.verify(withSeed(genuine, SEED + 1)));
+    }
+
+    @Test
+    void tamperedPermutationIndexIsFlagged() {
+        DrawRecord genuine = draw(deck, SEED, 2, 5);
+        DrawRecord tampered = new DrawRecord(genuine.subject(), genuine.user(), genuine.selected(),
+                genuine.finalChoice(), genuine.seed(), genuine.permutationIndex().add(BigInteger.ONE),
+                genuine.firstSlot(), genuine.secondSlot(), genuine.deckHash());
+
+        assertEquals(Status.PERMUTATION_MISMATCH, verifier.verify(tampered));
+    }
+
+    @Test
+    void tamperedSlotIsFlagged() {
+        DrawRecord genuine = draw(deck, SEED, 2, 5);
+
+        assertEquals(Status.OUTCOME_MISMATCH, verifier.verify(withSlots(genuine, 2, 6)));
+        assertEquals(Status.OUTCOME_MISMATCH, verifier.verify(withSlots(genuine, 2, 8)));
+    }
+
+    @Test
+    void sameCardTwiceIsFlagged() {
+        DrawRecord genuine = draw(deck, SEED, 4, 4);
+
+        assertEquals(Status.OUTCOME_MISMATCH, verifier.verify(genuine));
+    }
+
+    @Test
+    void finalChoiceOutsideTheSelectionIsFlagged() {
+        DrawRecord genuine = draw(deck, SEED, 2, 5);
+        DrawRecord tampered = new DrawRecord(genuine.subject(), genuine.user(), genuine.selected(), "Thema 9",
+                genuine.seed(), genuine.permutationIndex(), genuine.firstSlot(), genuine.secondSlot(),
+                genuine.deckHash());
+
+        assertEquals(Status.OUTCOME_MISMATCH, verifier.verify(tampered));
+    }
+
+    @Test
+    void editedPoolIsToldApartFromUnknownSubject() {
+        DrawRecord old = draw(topics("Alt", 8), SEED, 2, 5);
+
+        assertEquals(Status.POOL_CHANGED, verifier.verify(old));
+        assertEquals(Status.UNKNOWN_SUBJECT, verifier.verify(withSubject(old, "SEW")));
+    }
+
+    @Test
+    void archivedDeckVersionIsReplayed() {
+        List<Topic> oldDeck = topics("Alt", 8);
+        DrawRecord old = draw(oldDeck, SEED, 2, 5);
+        AuditVerifier withArchive = new AuditVerifier(Map.of("POS", deck),
+                Map.of(DeckArchive.key("POS", old.deckHash()), new DeckArchive.Deck("POS", oldDeck)));
+
+        assertEquals(Status.OK, withArchive.verify(old));
+    }
+
+    @Test
+    void recordSurvivesTheLogLine() {
+        DrawRecord genuine = draw(deck, SEED, 7, 0);
+
+        assertEquals(Status.OK, verifier.verify(DrawRecord.parse(genuine.format())));
+    }
+
+    /** Record as the controller writes it: the seed decides which topics lie at the two slots. */
+    private static DrawRecord draw(List<Topic> topics, long seed, int firstSlot, int secondSlot) {
+        int[] perm = SeededShuffle.permutation(seed, topics.size());
+        String first = topics.get(perm[firstSlot]).getName();
+        String second = topics.get(perm[secondSlot]).getName();
+        return new DrawRecord("POS", "Anna", first + ", " + second, second, seed, SeededShuffle.index(perm),
+                firstSlot, secondSlot, DrawRecord.deckHash(topics));
+    }
+
+    private static DrawRecord withSeed(DrawRecord r, long seed) {
+        return new DrawRecord(r.subject(), r.user(), r.selected(), r.finalChoice(), seed, r.permutationIndex(),
+                r.firstSlot(), r.secondSlot(), r.deckHash());
+    }
+
+    private static DrawRecord withSlots(DrawRecord r, int firstSlot, int secondSlot) {
+        return new DrawRecord(r.subject(), r.user(), r.selected(), r.finalChoice(), r.seed(), r.permutationIndex(),
+                firstSlot, secondSlot, r.deckHash());
+    }
+
+    private static DrawRecord withSubject(DrawRecord r, String subject) {
+        return new DrawRecord(subject, r.user(), r.selected(), r.finalChoice(), r.seed(), r.permutationIndex(),
+                r.firstSlot(), r.secondSlot(), r.deckHash());
+    }
+
+    private static List<Topic> topics(String prefix, int count) {
+        List<Topic> result = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            result.add(new Topic(prefix + " " + i));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,47 @@
+package at.htlle.auk.shuffler.audit;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class DrawRecordTest {
+
+    private static final DrawRecord RECORD = new DrawRecord("POS", "Anna Muster", "Netzwerke, VLANs, Routing",
+            "Netzwerke, VLANs", -42L, new BigInteger("123456789012345678901234"), 3, 5, "1a2b3c4d");
+
+    @Test
+    void formatAndParseRoundTrip() {
+        assertEquals(RECORD, DrawRecord.parse(RECORD.format()));
+    }
+
+    @Test
+    void roundTripWithoutUser() {
+        DrawRecord anonymous = new DrawRecord("SEW", null, "A, B", "B", Long.MIN_VALUE, BigInteger.ZERO, 0, 7, "ffffffff");
+
+        assertEquals(anonymous, DrawRecord.parse(anonymous.format()));
+    }
+
+    @Test
+    void parsesLineWithLogPrefix() {
+        String line = "2024-06-03 09:15:02.123 [JavaFX Application Thread] INFO  a.h.a.s.c.ShuffleController - "
+                + RECORD.format();
+
+        assertEquals(RECORD, DrawRecord.parse(line));
+    }
+
+    @Test
+    void ignoresRecordsWithoutSeed() {
+        assertNull(DrawRecord.parse("Subject=POS | user=Anna | selected=[A, B] | final=A"));
+        assertNull(DrawRecord.parse("Application started"));
+    }
+
+    @Test
+    void rejectsEditedNumbers() {
+        assertNull(DrawRecord.parse(RECORD.format().replace("seed=-42", "seed=x42")));
+        assertNull(DrawRecord.parse(RECORD.format().replace("slots=[3, 5]", "slots=[3, -5]")));
+        assertNull(DrawRecord.parse(RECORD.format().replace("perm=123456789012345678901234", "perm=-1")));
+    }
+}